@@ -0,0 +1,111 @@
+package com.inventory.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.model.JwtSigningKey;
+import com.inventory.model.User;
+import com.inventory.repository.JwtSigningKeyRepository;
+import com.inventory.security.JwtKeyRing;
+import com.inventory.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Builds the beans under test without a Spring context or database:
+ * fields are injected the way Spring would, repositories are in-memory.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    // Same serialization settings as the application's auto-configured ObjectMapper
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    static JwtUtil jwtUtil(int cacheMaxEntries) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        inject(keyRing, "jwtSigningKeyRepository", inMemoryKeyRepository());
+        inject(keyRing, "objectMapper", objectMapper());
+        inject(keyRing, "rotationDays", 7L);
+        inject(keyRing, "publishAheadMinutes", 60L);
+        inject(keyRing, "retireGraceMinutes", 5L);
+        inject(keyRing, "accessTokenTtlSeconds", 900L);
+        inject(keyRing, "encryptionSecret", "");
+        keyRing.init();
+
+        JwtUtil jwtUtil = new JwtUtil();
+        inject(jwtUtil, "jwtKeyRing", keyRing);
+        inject(jwtUtil, "accessTokenTtlSeconds", 900L);
+        inject(jwtUtil, "cacheMaxEntries", cacheMaxEntries);
+        inject(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtil.registerMetrics();
+        return jwtUtil;
+    }
+
+    // Realistic row as loaded from the users table
+    static User user(long id) {
+        User user = new User("user" + id, "user" + id + "@inventory.com",
+                "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy", "Test User " + id, "EMPLOYEE");
+        user.setId(id);
+        user.setIsActive(true);
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 30).plusMinutes(id));
+        user.setLastLogin(LocalDateTime.of(2024, 6, 1, 12, 0).plusSeconds(id));
+        return user;
+    }
+
+    // Field injection as Spring does it, for @Autowired and @Value fields
+    static void inject(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    static Object field(Object target, String name) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            return field.get(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot read " + name + " of " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static JwtSigningKeyRepository inMemoryKeyRepository() {
+        List<JwtSigningKey> keys = new ArrayList<>();
+        return (JwtSigningKeyRepository) Proxy.newProxyInstance(BenchmarkFixtures.class.getClassLoader(),
+                new Class<?>[]{JwtSigningKeyRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findAllByOrderByNotBeforeAscKidAsc":
+                            List<JwtSigningKey> sorted = new ArrayList<>(keys);
+                            sorted.sort(Comparator.comparing(JwtSigningKey::getNotBefore).thenComparing(JwtSigningKey::getKid));
+                            return sorted;
+                        case "save":
+                            keys.add((JwtSigningKey) args[0]);
+                            return args[0];
+                        case "delete":
+                            keys.remove(args[0]);
+                            return null;
+                        case "toString":
+                            return "InMemoryJwtSigningKeyRepository";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,65 @@
+package com.inventory.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inventory.model.AuthResponse;
+import com.inventory.model.UserDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization: the login response and an admin user listing
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"50", "1000"})
+    private int userCount;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter userListWriter;
+    private AuthResponse loginResponse;
+    private List<UserDTO> users;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        userListWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, UserDTO.class));
+        String token = BenchmarkFixtures.jwtUtil(10).generateToken("user1", "EMPLOYEE");
+        loginResponse = new AuthResponse(true, "Login successful!", token, "3q2-7wEXAMPLErefreshTOKEN0123456789abcdefg",
+                new UserDTO(BenchmarkFixtures.user(1)));
+        users = new ArrayList<>(userCount);
+        for (int i = 1; i <= userCount; i++) {
+            users.add(new UserDTO(BenchmarkFixtures.user(i)));
+        }
+    }
+
+    @Benchmark
+    public byte[] authResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(loginResponse);
+    }
+
+    @Benchmark
+    public byte[] userList() throws JsonProcessingException {
+        return userListWriter.writeValueAsBytes(users);
+    }
+}
@@ -0,0 +1,57 @@
+package com.inventory.benchmark;
+
+import com.inventory.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and validation: ES256 signing, full signature verification
+ * (verified-claims cache emptied before each call) and the cached path every
+ * authenticated request normally takes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private Map<?, ?> verifiedCache;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkFixtures.jwtUtil(10000);
+        token = jwtUtil.generateToken("benchmark_user", "EMPLOYEE");
+        verifiedCache = (Map<?, ?>) BenchmarkFixtures.field(jwtUtil, "verifiedCache");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("benchmark_user", "EMPLOYEE");
+    }
+
+    @Benchmark
+    public Boolean validateTokenVerified() {
+        verifiedCache.clear();
+        return jwtUtil.validateToken(token, "benchmark_user");
+    }
+
+    @Benchmark
+    public Boolean validateTokenCached() {
+        return jwtUtil.validateToken(token, "benchmark_user");
+    }
+}
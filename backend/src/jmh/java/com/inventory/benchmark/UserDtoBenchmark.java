@@ -0,0 +1,46 @@
+package com.inventory.benchmark;
+
+import com.inventory.model.User;
+import com.inventory.model.UserDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserDTO construction from an entity versus the JPQL constructor projection
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserDtoBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkFixtures.user(42);
+    }
+
+    @Benchmark
+    public UserDTO fromEntity() {
+        return new UserDTO(user);
+    }
+
+    @Benchmark
+    public UserDTO fromProjection() {
+        return new UserDTO(user.getId(), user.getUsername(), user.getEmail(), user.getFullName(),
+                user.getRole(), user.getIsActive(), user.getCreatedAt(), user.getLastLogin());
+    }
+}
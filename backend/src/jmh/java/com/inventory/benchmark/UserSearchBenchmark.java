@@ -0,0 +1,123 @@
+package com.inventory.benchmark;
+
+import com.inventory.model.UserDTO;
+import com.inventory.model.UserSearchResult;
+import com.inventory.service.UserSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin typeahead over a 1M-user index: one search per keystroke, widening
+ * (1 character matches a large share of all keys) to narrow, with and without
+ * filters, and the incremental writes that keep the index current.
+ * Setup prints build time and retained heap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@State(Scope.Benchmark)
+public class UserSearchBenchmark {
+
+    private static final int USERS = 1_000_000;
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+            "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+            "Thomas", "Sarah", "Charles", "Karen", "Maria", "José", "Wei", "Priya", "Ahmed", "Fatima", "Olga",
+            "Hiroshi", "Ana", "Luca", "Sofia", "Mohammed", "Chen", "Aarav", "Emma", "Noah", "Olivia", "Liam"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson",
+            "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez",
+            "Clark", "Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott", "Nguyen",
+            "Kumar", "Singh", "Wang", "Müller", "Rossi", "Ivanova", "Tanaka", "Silva", "de la Cruz"};
+    private static final String[] DOMAINS = {"inventory.com", "gmail.com", "outlook.com", "example.org"};
+
+    private UserSearchIndex index;
+    private long nextId = USERS + 1;
+    private long toggledId = 1;
+    private boolean toggledActive;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        UserSearchIndex.Builder builder = new UserSearchIndex.Builder();
+        for (long id = 1; id <= USERS; id++) {
+            builder.add(user(id, random));
+        }
+        index = builder.build();
+        long buildMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%nIndexed %d users, %d keys in %d ms, ~%d MB retained (%d B/user)%n", index.size(),
+                index.keyCount(), buildMs, (usedHeap() - heapBefore) >> 20, (usedHeap() - heapBefore) / USERS);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Query {
+
+        // One, two and three keystrokes, a full word plus the start of the next, and an email
+        @Param({"m", "ma", "mar", "maria g", "wei.k"})
+        public String q;
+
+        // none, role=ADMIN, active=false
+        @Param({"none", "role", "inactive"})
+        public String filter;
+    }
+
+    @Benchmark
+    public UserSearchResult search(Query query) {
+        String role = "role".equals(query.filter) ? "ADMIN" : null;
+        Boolean active = "inactive".equals(query.filter) ? Boolean.FALSE : null;
+        return index.search(query.q, role, active, 20);
+    }
+
+    // A signup: new keys land in the delta, merged into the base every few thousand
+    @Benchmark
+    public UserSearchIndex insert() {
+        index.putAll(Collections.singletonList(user(nextId, new Random(nextId))));
+        nextId++;
+        return index;
+    }
+
+    // A deactivation: the user's entries are rewritten in place
+    @Benchmark
+    public UserSearchIndex setActive() {
+        index.setActive(toggledId, toggledActive);
+        toggledId = toggledId % USERS + 1;
+        toggledActive = toggledId == 1 ? !toggledActive : toggledActive;
+        return index;
+    }
+
+    private static UserDTO user(long id, Random random) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String handle = (first + "." + last).toLowerCase().replace(' ', '_') + id;
+        double roll = random.nextDouble();
+        String role = roll < 0.01 ? "ADMIN" : roll < 0.10 ? "MANAGER" : "EMPLOYEE";
+        return new UserDTO(id, handle, handle + "@" + DOMAINS[random.nextInt(DOMAINS.length)], first + " " + last,
+                role, random.nextDouble() >= 0.02, LocalDateTime.of(2023, 1, 1, 0, 0).plusMinutes(id), null);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,200 @@
+package com.inventory.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.InventoryApplication;
+import com.inventory.service.PasswordHashingService;
+import com.inventory.service.UserDirectoryVersion;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bytes on the wire and database statements for the users listing, with and
+ * without gzip and ETag revalidation. Each scenario sends the same sequence of
+ * GETs from one client; the "+writes" scenarios deactivate a user every
+ * --write-every requests so some revalidations must return a fresh body.
+ *
+ * Run: mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.inventory.loadtest.DirectoryBenchmark
+ *
+ * Options (-Dloadtest.args="--name=value ..."):
+ *   --users        seeded users, inserted directly over JDBC [20000]
+ *   --requests     GETs per scenario [100]
+ *   --write-every  requests between writes in the "+writes" scenarios [20]
+ */
+public final class DirectoryBenchmark {
+
+    private static final String[] PATHS = {"/users?limit=50&afterId=0", "/users"};
+
+    // "HTTP/1.1 200 \r\n" plus the blank line ending the headers
+    private static final int STATUS_LINE_BYTES = 17;
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, email, password, full_name, role, is_active, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String baseUrl;
+    private String adminToken;
+    private Statistics statistics;
+    // Id 1 is the admin making the requests
+    private long nextWriteTarget = 2;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new DirectoryBenchmark().run(Integer.parseInt(options.getOrDefault("users", "20000")),
+                Integer.parseInt(options.getOrDefault("requests", "100")),
+                Integer.parseInt(options.getOrDefault("write-every", "20")));
+        System.exit(0);
+    }
+
+    private void run(int users, int requests, int writeEvery) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (SmtpSink smtp = new SmtpSink(raw -> { })) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(InventoryApplication.class)
+                    .profiles("loadtest")
+                    .run("--server.port=0", "--spring.mail.port=" + smtp.getPort(),
+                            "--spring.jpa.properties.hibernate.generate_statistics=true",
+                            // Keep background polling out of the per-request statement counts
+                            "--app.email.outbox.poll-interval-ms=600000",
+                            "--app.jwt.revocation.sync-interval-ms=600000",
+                            "--app.users.directory-version.sync-interval-ms=600000",
+                            "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN");
+            try {
+                baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/auth";
+                statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+                seed(context, users);
+
+                List<String[]> rows = new ArrayList<>();
+                for (String path : PATHS) {
+                    rows.add(scenario(path, "plain", requests, false, false, 0));
+                    rows.add(scenario(path, "gzip", requests, true, false, 0));
+                    rows.add(scenario(path, "gzip+etag", requests, true, true, 0));
+                    rows.add(scenario(path, "gzip+etag+writes", requests, true, true, writeEvery));
+                }
+                System.out.printf("%nUsers: %d, requests per scenario: %d%n%n", users, requests);
+                System.out.printf("%-26s %-17s %6s %6s %14s %12s %10s %9s%n",
+                        "path", "scenario", "200", "304", "wire bytes", "bytes/req", "DB stmts", "mean ms");
+                for (String[] row : rows) {
+                    System.out.printf("%-26s %-17s %6s %6s %14s %12s %10s %9s%n", (Object[]) row);
+                }
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context, int users) throws Exception {
+        // The loadtest profile's bootstrap admin
+        JsonNode admin = objectMapper.readTree(client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"lt_admin\",\"password\":\""
+                        + Workload.PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString()).body());
+        adminToken = admin.path("token").asText();
+
+        // Nobody logs in as these users, so one hash serves them all
+        String hash = context.getBean(PasswordHashingService.class).encode(Workload.PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            batch.add(new Object[]{"bench_user_" + i, "bench_user_" + i + "@loadtest.local", hash,
+                    "Benchmark User " + i, "EMPLOYEE", true, now, now});
+            if (batch.size() == 1000 || i == users - 1) {
+                context.getBean(JdbcTemplate.class).batchUpdate(INSERT_USER_SQL, batch);
+                batch.clear();
+            }
+        }
+        // Seeded behind the application's back: reach the listing's ETag the way another instance would
+        context.getBean(UserDirectoryVersion.class).markChanged();
+        System.out.printf("Seeded %d users%n", users);
+    }
+
+    private String[] scenario(String path, String name, int requests, boolean gzip, boolean conditional,
+                              int writeEvery) throws Exception {
+        String etag = null;
+        long ok = 0;
+        long notModified = 0;
+        long bytes = 0;
+        long statements = 0;
+        long nanos = 0;
+        for (int i = 0; i < requests; i++) {
+            if (writeEvery > 0 && i > 0 && i % writeEvery == 0) {
+                deactivateNextUser();
+            }
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + adminToken)
+                    .timeout(Duration.ofMinutes(1))
+                    .GET();
+            if (gzip) {
+                request.header("Accept-Encoding", "gzip");
+            }
+            if (conditional && etag != null) {
+                request.header("If-None-Match", etag);
+            }
+            long statementsBefore = statistics.getPrepareStatementCount();
+            long start = System.nanoTime();
+            // Raw body bytes: HttpClient does not decompress, so this is what crossed the wire
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            nanos += System.nanoTime() - start;
+            statements += statistics.getPrepareStatementCount() - statementsBefore;
+            bytes += response.body().length + headerBytes(response);
+            if (response.statusCode() == 304) {
+                notModified++;
+            } else if (response.statusCode() == 200) {
+                ok++;
+                etag = response.headers().firstValue("ETag").orElse(null);
+            } else {
+                throw new IllegalStateException(path + " returned " + response.statusCode());
+            }
+        }
+        return new String[]{path, name, Long.toString(ok), Long.toString(notModified), Long.toString(bytes),
+                Long.toString(bytes / requests), Long.toString(statements),
+                String.format("%.2f", nanos / 1e6 / requests)};
+    }
+
+    // Listing-visible write through the API, as an admin would make it
+    private void deactivateNextUser() throws Exception {
+        long id = nextWriteTarget++;
+        client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/users/" + id + "/deactivate"))
+                .header("Authorization", "Bearer " + adminToken)
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static long headerBytes(HttpResponse<?> response) {
+        long total = 0;
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            for (String value : header.getValue()) {
+                total += header.getKey().length() + value.length() + 4;
+            }
+        }
+        return total + STATUS_LINE_BYTES;
+    }
+}
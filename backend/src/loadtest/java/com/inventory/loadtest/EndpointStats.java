@@ -0,0 +1,66 @@
+package com.inventory.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds, 3 significant digits) and error count for one endpoint
+ */
+final class EndpointStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final String name;
+    private final Histogram latency = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void record(long latencyNanos, boolean success) {
+        latency.recordValue(Math.min(MAX_TRACKABLE_MICROS, Math.max(1, latencyNanos / 1000)));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    long getCount() {
+        return latency.getTotalCount();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    // Summary in milliseconds for the report and the regression gate
+    Map<String, Object> summarize(double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long count = getCount();
+        summary.put("count", count);
+        summary.put("errors", getErrors());
+        summary.put("throughput", round(count / seconds));
+        summary.put("p50", millis(latency.getValueAtPercentile(50)));
+        summary.put("p99", millis(latency.getValueAtPercentile(99)));
+        summary.put("p999", millis(latency.getValueAtPercentile(99.9)));
+        summary.put("max", millis(latency.getMaxValue()));
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
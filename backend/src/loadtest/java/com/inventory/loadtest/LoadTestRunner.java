@@ -0,0 +1,429 @@
+package com.inventory.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inventory.InventoryApplication;
+import com.inventory.loadtest.Workload.Operation;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Self-contained load test: boots the backend on an in-memory H2 database with a
+ * local SMTP sink, seeds users, drives a weighted mix of auth calls and writes a
+ * latency report. Optionally fails when p99 or throughput regress against a
+ * baseline report.
+ *
+ * Run: mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--duration=60 --concurrency=16"
+ *
+ * Options (defaults in brackets):
+ *   --concurrency   worker threads [16]
+ *   --duration      measured seconds [60]
+ *   --warmup        seconds discarded before measuring [10]
+ *   --users         seeded users [200]
+ *   --rate          total requests/s for an open-loop run; 0 runs closed-loop [0]
+ *   --mix           operation weights [login=60,refresh=5,listUsers=15,signup=8,forgotPassword=6,resetPassword=6]
+ *   --report        JSON report path [target/loadtest-report.json]
+ *   --baseline      earlier report to compare against [none]
+ *   --tolerance     allowed p99 increase / throughput drop as a fraction [0.10]
+ *   --max-error-rate allowed errors per request for any endpoint [0.01]
+ *   --virtual-threads serve requests on virtual threads, JDK 21+ [false]
+ *   --stack         servlet or reactive web stack [servlet]; reactive defaults --mix to
+ *                   login=90,signup=10, so compare both stacks with that mix
+ *   --replica       route read-only transactions through a second pool on the same
+ *                   database, exercising replica routing and the lag check [false]
+ *
+ * Thread model comparison: run once with --virtual-threads=false and once with
+ * --virtual-threads=true at high --concurrency (e.g. 1000) and compare throughput,
+ * latency and the "jvm" section (peak threads, heap, GC). The client shares the
+ * JVM, so its threads count in both runs alike.
+ *
+ * The "database" section counts JPA/JDBC statements prepared during the measured
+ * window (Hibernate statistics, as DirectoryBenchmark uses) and the "userCache"
+ * section the user.cache.* hit ratio, so a cache change shows up as fewer
+ * statements per request. The reactive stack's R2DBC queries are not counted.
+ */
+public final class LoadTestRunner {
+
+    private static final String DEFAULT_MIX =
+            "login=60,refresh=5,listUsers=15,signup=8,forgotPassword=6,resetPassword=6";
+
+    // The reactive stack serves signup and login only
+    private static final String DEFAULT_REACTIVE_MIX = "login=90,signup=10";
+
+    // Baseline endpoints with fewer samples than this are too noisy to gate on
+    private static final long MIN_GATED_SAMPLES = 100;
+
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private volatile Workload workload;
+    private Statistics statistics;
+    private MeterRegistry meterRegistry;
+    private volatile Map<Operation, EndpointStats> stats = newStats();
+    private volatile boolean running = true;
+
+    private LoadTestRunner(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        System.exit(new LoadTestRunner(options).run() ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        int concurrency = intOption("concurrency", 16);
+        int durationSeconds = intOption("duration", 60);
+        int warmupSeconds = intOption("warmup", 10);
+        int users = intOption("users", 200);
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        boolean virtualThreads = Boolean.parseBoolean(options.getOrDefault("virtual-threads", "false"));
+        String stack = options.getOrDefault("stack", "servlet");
+        boolean replica = Boolean.parseBoolean(options.getOrDefault("replica", "false"));
+        boolean reactive = "reactive".equals(stack);
+        String mix = options.getOrDefault("mix", reactive ? DEFAULT_REACTIVE_MIX : DEFAULT_MIX);
+        Operation[] schedule = parseMix(mix);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        Map<String, Object> report;
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (SmtpSink smtp = new SmtpSink(raw -> onEmail(raw))) {
+            List<String> args = new ArrayList<>(Arrays.asList("--server.port=0", "--spring.mail.port=" + smtp.getPort(),
+                    "--app.threads.virtual=" + virtualThreads,
+                    "--spring.main.web-application-type=" + stack,
+                    "--spring.jpa.properties.hibernate.generate_statistics=true",
+                    "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"));
+            if (replica) {
+                args.add("--app.datasource.replica.url=${spring.datasource.url}");
+            }
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(InventoryApplication.class)
+                    .profiles("loadtest")
+                    .run(args.toArray(new String[0]));
+            try {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/auth";
+                statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+                meterRegistry = context.getBean(MeterRegistry.class);
+                workload = new Workload(client, baseUrl, objectMapper, users);
+                System.out.printf("Seeding %d users...%n", users);
+                workload.seed(!reactive, concurrency);
+
+                report = drive(concurrency, warmupSeconds, durationSeconds, rate, schedule);
+                report.put("emailsCaptured", smtp.getReceived());
+            } finally {
+                context.close();
+            }
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("concurrency", concurrency);
+        config.put("durationSeconds", durationSeconds);
+        config.put("warmupSeconds", warmupSeconds);
+        config.put("users", users);
+        config.put("rate", rate);
+        config.put("mix", mix);
+        config.put("stack", stack);
+        config.put("virtualThreads", virtualThreads);
+        config.put("replica", replica);
+        config.put("javaVersion", System.getProperty("java.version"));
+        report.put("config", config);
+
+        File reportFile = new File(options.getOrDefault("report", "target/loadtest-report.json"));
+        if (reportFile.getParentFile() != null) {
+            reportFile.getParentFile().mkdirs();
+        }
+        objectMapper.writeValue(reportFile, report);
+        System.out.println("Report written to " + reportFile.getPath());
+
+        return gate(report);
+    }
+
+    private void onEmail(byte[] raw) {
+        Workload current = workload;
+        if (current != null) {
+            current.onEmail(raw);
+        }
+    }
+
+    private Map<String, Object> drive(int concurrency, int warmupSeconds, int durationSeconds,
+                                      double rate, Operation[] schedule) throws InterruptedException {
+        // Open loop: each worker owns an equal share of the target rate
+        long intervalNanos = rate > 0 ? (long) (concurrency * 1e9 / rate) : 0;
+
+        List<Thread> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> work(schedule, intervalNanos), "loadtest-worker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        System.out.printf("Warming up for %ds...%n", warmupSeconds);
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        stats = newStats();
+        JvmSampler jvm = new JvmSampler();
+        long statementsAtStart = statistics.getPrepareStatementCount();
+        double cacheHitsAtStart = counter("user.cache.hits");
+        double cacheMissesAtStart = counter("user.cache.misses");
+        long measureStart = System.nanoTime();
+        System.out.printf("Measuring for %ds (%s)...%n", durationSeconds,
+                rate > 0 ? "open loop at " + rate + " req/s" : "closed loop");
+        long deadline = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            jvm.sample();
+            TimeUnit.NANOSECONDS.sleep(Math.min(deadline - now, TimeUnit.MILLISECONDS.toNanos(500)));
+        }
+        Map<Operation, EndpointStats> measured = stats;
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+        long statements = statistics.getPrepareStatementCount() - statementsAtStart;
+        double cacheHits = counter("user.cache.hits") - cacheHitsAtStart;
+        double cacheMisses = counter("user.cache.misses") - cacheMissesAtStart;
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long totalCount = 0;
+        long totalErrors = 0;
+        System.out.printf("%n%-16s %9s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats endpoint : measured.values()) {
+            if (endpoint.getCount() == 0) {
+                continue;
+            }
+            Map<String, Object> summary = endpoint.summarize(seconds);
+            endpoints.put(endpoint.getName(), summary);
+            totalCount += endpoint.getCount();
+            totalErrors += endpoint.getErrors();
+            System.out.printf("%-16s %9d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n", endpoint.getName(),
+                    summary.get("count"), summary.get("errors"), summary.get("throughput"),
+                    summary.get("p50"), summary.get("p99"), summary.get("p999"), summary.get("max"));
+        }
+        System.out.printf("%-16s %9d %8d %10.1f%n%n", "total", totalCount, totalErrors, totalCount / seconds);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("measuredSeconds", Math.round(seconds * 100) / 100.0);
+        report.put("totalCount", totalCount);
+        report.put("totalErrors", totalErrors);
+        report.put("throughput", Math.round(totalCount / seconds * 100) / 100.0);
+        report.put("endpoints", endpoints);
+        report.put("jvm", jvm.summarize());
+        System.out.println("JVM: " + report.get("jvm"));
+
+        Map<String, Object> database = new LinkedHashMap<>();
+        database.put("statements", statements);
+        database.put("statementsPerSecond", Math.round(statements / seconds * 100) / 100.0);
+        database.put("statementsPerRequest", Math.round((double) statements / Math.max(1, totalCount) * 100) / 100.0);
+        report.put("database", database);
+        System.out.println("Database: " + database);
+
+        Map<String, Object> userCache = new LinkedHashMap<>();
+        userCache.put("hits", (long) cacheHits);
+        userCache.put("misses", (long) cacheMisses);
+        userCache.put("hitRatio", Math.round(cacheHits / Math.max(1, cacheHits + cacheMisses) * 10000) / 10000.0);
+        report.put("userCache", userCache);
+        System.out.println("User cache: " + userCache);
+        return report;
+    }
+
+    // Current value of a FunctionCounter, 0 when the application does not register it
+    private double counter(String name) {
+        FunctionCounter counter = meterRegistry.find(name).functionCounter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private void work(Operation[] schedule, long intervalNanos) {
+        Workload.WorkerState state = new Workload.WorkerState();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Stagger open-loop workers so they do not fire in lockstep
+        long intended = System.nanoTime() + (intervalNanos > 0 ? random.nextLong(intervalNanos) : 0);
+
+        while (running) {
+            long start;
+            if (intervalNanos > 0) {
+                long now;
+                while ((now = System.nanoTime()) < intended && running) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                // Latency counts from the scheduled send time, so a stalled server is not hidden
+                // by the worker simply sending fewer requests (coordinated omission)
+                start = intended;
+                intended += intervalNanos;
+            } else {
+                start = System.nanoTime();
+            }
+            if (!running) {
+                break;
+            }
+
+            Operation picked = schedule[random.nextInt(schedule.length)];
+            try {
+                Workload.Call call = workload.prepare(picked, state);
+                if (intervalNanos == 0) {
+                    start = System.nanoTime();
+                }
+                HttpResponse<String> response = workload.send(call);
+                long latency = System.nanoTime() - start;
+                stats.get(call.operation).record(latency, workload.succeeded(call.operation, response));
+                workload.complete(call.operation, state, response);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                stats.get(picked).record(System.nanoTime() - start, false);
+            }
+        }
+    }
+
+    // Compare against the baseline; error rates are gated even without one
+    private boolean gate(Map<String, Object> report) throws Exception {
+        double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "0.10"));
+        double maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "0.01"));
+        JsonNode current = objectMapper.valueToTree(report).path("endpoints");
+        List<String> failures = new ArrayList<>();
+
+        current.fields().forEachRemaining(entry -> {
+            JsonNode endpoint = entry.getValue();
+            double errorRate = endpoint.path("errors").asDouble() / Math.max(1, endpoint.path("count").asLong());
+            if (errorRate > maxErrorRate) {
+                failures.add(String.format("%s: error rate %.2f%% exceeds %.2f%%",
+                        entry.getKey(), errorRate * 100, maxErrorRate * 100));
+            }
+        });
+
+        String baselinePath = options.get("baseline");
+        if (baselinePath != null) {
+            JsonNode baseline = objectMapper.readTree(new File(baselinePath)).path("endpoints");
+            baseline.fields().forEachRemaining(entry -> {
+                JsonNode before = entry.getValue();
+                JsonNode after = current.path(entry.getKey());
+                if (before.path("count").asLong() < MIN_GATED_SAMPLES || after.isMissingNode()) {
+                    return;
+                }
+                double p99Before = before.path("p99").asDouble();
+                double p99After = after.path("p99").asDouble();
+                if (p99After > p99Before * (1 + tolerance)) {
+                    failures.add(String.format("%s: p99 %.2f ms vs baseline %.2f ms", entry.getKey(), p99After, p99Before));
+                }
+                double throughputBefore = before.path("throughput").asDouble();
+                double throughputAfter = after.path("throughput").asDouble();
+                if (throughputAfter < throughputBefore * (1 - tolerance)) {
+                    failures.add(String.format("%s: throughput %.1f req/s vs baseline %.1f req/s",
+                            entry.getKey(), throughputAfter, throughputBefore));
+                }
+            });
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println(baselinePath != null ? "PASS: no regression against " + baselinePath : "PASS");
+            return true;
+        }
+        System.out.println("FAIL:");
+        failures.forEach(failure -> System.out.println("  " + failure));
+        return false;
+    }
+
+    // Peak platform threads and heap during the measured window, plus GC work done in it
+    private static final class JvmSampler {
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long gcCountAtStart = gcCount();
+        private final long gcTimeAtStart = gcTimeMs();
+        private int peakThreads;
+        private long peakHeapBytes;
+
+        void sample() {
+            peakThreads = Math.max(peakThreads, threads.getThreadCount());
+            peakHeapBytes = Math.max(peakHeapBytes, memory.getHeapMemoryUsage().getUsed());
+        }
+
+        Map<String, Object> summarize() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("peakPlatformThreads", peakThreads);
+            summary.put("peakHeapUsedMb", Math.round(peakHeapBytes / 1048576.0 * 10) / 10.0);
+            summary.put("gcCount", gcCount() - gcCountAtStart);
+            summary.put("gcTimeMs", gcTimeMs() - gcTimeAtStart);
+            return summary;
+        }
+
+        private static long gcCount() {
+            long count = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+            }
+            return count;
+        }
+
+        private static long gcTimeMs() {
+            long time = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                time += Math.max(0, gc.getCollectionTime());
+            }
+            return time;
+        }
+    }
+
+    // Expand the weights into a lookup table so picking is a single random index
+    private static Operation[] parseMix(String mix) {
+        List<Operation> schedule = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            Operation operation = Operation.fromKey(pair[0].trim());
+            int weight = Integer.parseInt(pair[1].trim());
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        }
+        if (schedule.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty");
+        }
+        return schedule.toArray(new Operation[0]);
+    }
+
+    private static Map<Operation, EndpointStats> newStats() {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation.key));
+        }
+        return stats;
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, Integer.toString(defaultValue)));
+    }
+}
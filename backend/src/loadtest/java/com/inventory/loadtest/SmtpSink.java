@@ -0,0 +1,133 @@
+package com.inventory.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Minimal in-process SMTP server that accepts every message and hands the raw
+ * RFC 822 bytes to a listener. Enough of RFC 5321 for JavaMail without TLS or AUTH.
+ */
+final class SmtpSink implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Consumer<byte[]> listener;
+    private final AtomicLong received = new AtomicLong();
+    private volatile boolean running = true;
+
+    SmtpSink(Consumer<byte[]> listener) throws IOException {
+        this.listener = listener;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "smtp-sink");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    long getReceived() {
+        return received.get();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread session = new Thread(() -> serve(socket), "smtp-sink-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("SMTP sink accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+             InputStream in = new BufferedInputStream(s.getInputStream());
+             OutputStream out = new BufferedOutputStream(s.getOutputStream())) {
+            reply(out, "220 loadtest-smtp ESMTP");
+            String line;
+            while ((line = readLine(in)) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO":
+                    case "HELO":
+                        reply(out, "250 loadtest-smtp");
+                        break;
+                    case "DATA":
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        listener.accept(readData(in));
+                        received.incrementAndGet();
+                        reply(out, "250 OK");
+                        break;
+                    case "QUIT":
+                        reply(out, "221 Bye");
+                        return;
+                    default:
+                        // MAIL, RCPT, RSET, NOOP: accept everything
+                        reply(out, "250 OK");
+                        break;
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    // Message lines up to the lone "." terminator, with dot-stuffing removed
+    private static byte[] readData(InputStream in) throws IOException {
+        ByteArrayOutputStream message = new ByteArrayOutputStream(4096);
+        String line;
+        while ((line = readLine(in)) != null && !line.equals(".")) {
+            if (line.startsWith(".")) {
+                line = line.substring(1);
+            }
+            message.write(line.getBytes(StandardCharsets.ISO_8859_1));
+            message.write('\r');
+            message.write('\n');
+        }
+        return message.toByteArray();
+    }
+
+    // One CRLF-terminated line, bytes preserved as ISO-8859-1
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            line.append((char) b);
+        }
+        return line.length() > 0 ? line.toString() : null;
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+    }
+}
@@ -0,0 +1,219 @@
+package com.inventory.loadtest;
+
+import com.inventory.InventoryApplication;
+import com.inventory.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Query plans and latencies of the users query paths on a large seeded table,
+ * before and after the V2 index migration. The schema is migrated to V1 only,
+ * seeded, measured, then migrated to the latest version and measured again.
+ * Plans are H2's (MySQL mode); InnoDB picks the same indexes for these queries,
+ * check with EXPLAIN on the real database before relying on absolute numbers.
+ *
+ * Run: mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.inventory.loadtest.UserIndexBenchmark
+ *
+ * Options (-Dloadtest.args="--name=value ..."):
+ *   --users    seeded users [500000]
+ *   --repeat   timed runs per query, after two warm-up runs [15]
+ */
+public final class UserIndexBenchmark {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, email, password, full_name, role, is_active, created_at, updated_at, "
+                    + "last_login, reset_token, reset_token_expiry) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Roughly what a mature install looks like: few admins, few deactivated accounts
+    private static final double ADMIN_SHARE = 0.01;
+    private static final double MANAGER_SHARE = 0.09;
+    private static final double INACTIVE_SHARE = 0.02;
+    private static final double NEVER_LOGGED_IN_SHARE = 0.10;
+    private static final double RESET_PENDING_SHARE = 0.001;
+
+    private final List<Query> queries = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new UserIndexBenchmark().run(Integer.parseInt(options.getOrDefault("users", "500000")),
+                Integer.parseInt(options.getOrDefault("repeat", "15")));
+        System.exit(0);
+    }
+
+    private void run(int users, int repeat) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (SmtpSink smtp = new SmtpSink(raw -> { })) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(InventoryApplication.class)
+                    .profiles("loadtest")
+                    .run("--server.port=0", "--spring.mail.port=" + smtp.getPort(),
+                            // Own database; no command cache, so repeated queries are not answered from H2's last result
+                            "--spring.datasource.url=jdbc:h2:mem:userindex;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                                    + "DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;QUERY_CACHE_SIZE=0",
+                            // Start from the schema as it was before the index migration
+                            "--spring.flyway.target=1",
+                            // Keep background jobs off the table while timing
+                            "--app.email.outbox.poll-interval-ms=600000",
+                            "--app.jwt.revocation.sync-interval-ms=600000",
+                            "--app.users.directory-version.sync-interval-ms=600000",
+                            "--app.reset-token.sweep.interval-ms=600000",
+                            "--app.login.write-behind.flush-interval-ms=600000");
+            try {
+                jdbcTemplate = context.getBean(JdbcTemplate.class);
+                UserRepository userRepository = context.getBean(UserRepository.class);
+                String resetToken = seed(users);
+                defineQueries(userRepository, resetToken);
+
+                List<Result> before = measure(repeat);
+                Flyway flyway = context.getBean(Flyway.class);
+                long start = System.nanoTime();
+                Flyway.configure().configuration(flyway.getConfiguration()).target("latest").load().migrate();
+                double migrateMs = (System.nanoTime() - start) / 1e6;
+                List<Result> after = measure(repeat);
+
+                System.out.printf("%nUsers: %d, timed runs per query: %d, V2 migration took %.0f ms%n%n",
+                        users, repeat, migrateMs);
+                System.out.printf("%-34s %8s %12s %12s %9s%n", "query", "rows", "before ms", "after ms", "speedup");
+                for (int i = 0; i < queries.size(); i++) {
+                    System.out.printf("%-34s %8d %12.2f %12.2f %8.1fx%n", queries.get(i).name, after.get(i).rows,
+                            before.get(i).medianMs, after.get(i).medianMs, before.get(i).medianMs / after.get(i).medianMs);
+                }
+                System.out.println();
+                for (int i = 0; i < queries.size(); i++) {
+                    System.out.printf("%s%n  before: %s%n  after:  %s%n", queries.get(i).name,
+                            before.get(i).plan, after.get(i).plan);
+                }
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    // Returns one pending reset token to look up
+    private String seed(int users) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        String resetToken = null;
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            double roll = random.nextDouble();
+            String role = roll < ADMIN_SHARE ? "ADMIN" : roll < ADMIN_SHARE + MANAGER_SHARE ? "MANAGER" : "EMPLOYEE";
+            LocalDateTime createdAt = now.minusMinutes(random.nextInt(3 * 365 * 24 * 60));
+            Timestamp lastLogin = random.nextDouble() < NEVER_LOGGED_IN_SHARE ? null
+                    : Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60)));
+            String token = null;
+            Timestamp tokenExpiry = null;
+            if (random.nextDouble() < RESET_PENDING_SHARE) {
+                token = "reset-" + i;
+                tokenExpiry = Timestamp.valueOf(now.plusMinutes(30));
+                resetToken = token;
+            }
+            batch.add(new Object[]{"index_user_" + i, "index_user_" + i + "@loadtest.local", "{noop}unused",
+                    "Index User " + i, role, random.nextDouble() >= INACTIVE_SHARE, Timestamp.valueOf(createdAt),
+                    Timestamp.valueOf(createdAt), lastLogin, token, tokenExpiry});
+            if (batch.size() == 5000 || i == users - 1) {
+                jdbcTemplate.batchUpdate(INSERT_USER_SQL, batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+        System.out.printf("Seeded %d users%n", users);
+        return resetToken;
+    }
+
+    private void defineQueries(UserRepository userRepository, String resetToken) {
+        // Repository methods, timed end to end through Hibernate
+        queries.add(new Query("findByRole(ADMIN)", "SELECT * FROM users WHERE role = 'ADMIN'",
+                () -> userRepository.findByRole("ADMIN").size()));
+        queries.add(new Query("findByIsActive(false)", "SELECT * FROM users WHERE is_active = FALSE",
+                () -> userRepository.findByIsActive(false).size()));
+        queries.add(new Query("findByResetToken", "SELECT * FROM users WHERE reset_token = '" + resetToken + "'",
+                () -> userRepository.findByResetToken(resetToken).isPresent() ? 1 : 0));
+        // Orderings and filters on the same columns, as plain SQL
+        queries.add(jdbc("active admins count",
+                "SELECT COUNT(*) FROM users WHERE role = 'ADMIN' AND is_active = TRUE"));
+        queries.add(jdbc("newest 50 accounts",
+                "SELECT id, username FROM users ORDER BY created_at DESC LIMIT 50"));
+        // Sorting on the filtered column too is a no-op, but H2 only reads the index in order when told
+        queries.add(jdbc("50 stalest active accounts",
+                "SELECT id, username FROM users WHERE is_active = TRUE ORDER BY is_active, last_login LIMIT 50"));
+        queries.add(jdbc("latest login (MAX)", "SELECT MAX(last_login) FROM users"));
+    }
+
+    private Query jdbc(String name, String sql) {
+        return new Query(name, sql, () -> jdbcTemplate.queryForList(sql).size());
+    }
+
+    private List<Result> measure(int repeat) {
+        List<Result> results = new ArrayList<>();
+        for (Query query : queries) {
+            query.run.get();
+            query.run.get();
+            double[] millis = new double[repeat];
+            int rows = 0;
+            for (int i = 0; i < repeat; i++) {
+                long start = System.nanoTime();
+                rows = query.run.get();
+                millis[i] = (System.nanoTime() - start) / 1e6;
+            }
+            Arrays.sort(millis);
+            results.add(new Result(rows, millis[repeat / 2], plan(query.sql)));
+        }
+        return results;
+    }
+
+    // H2 prints the chosen access path as a comment, e.g. /* PUBLIC.IDX_USERS_ROLE_ACTIVE: ROLE = 'ADMIN' */
+    private String plan(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        StringBuilder access = new StringBuilder();
+        int from = 0;
+        while ((from = plan.indexOf("/*", from)) >= 0) {
+            int to = plan.indexOf("*/", from);
+            access.append(access.length() > 0 ? " " : "").append(plan, from, to + 2);
+            from = to + 2;
+        }
+        return access.length() > 0 ? access.toString().replaceAll("\\s+", " ") : plan.replaceAll("\\s+", " ");
+    }
+
+    private static final class Query {
+        final String name;
+        final String sql;
+        final Supplier<Integer> run;
+
+        Query(String name, String sql, Supplier<Integer> run) {
+            this.name = name;
+            this.sql = sql;
+            this.run = run;
+        }
+    }
+
+    private static final class Result {
+        final int rows;
+        final double medianMs;
+        final String plan;
+
+        Result(int rows, double medianMs, String plan) {
+            this.rows = rows;
+            this.medianMs = medianMs;
+            this.plan = plan;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.inventory.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.mail.Message;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The scripted user population and the HTTP calls of each operation.
+ * Seeded users are split in two pools: one logs in and refreshes, the other
+ * goes through forgot/reset-password (which ends that user's sessions), so the
+ * two flows never invalidate each other's tokens.
+ */
+final class Workload {
+
+    static final String PASSWORD = "LoadTest#2024";
+
+    private static final Pattern RESET_TOKEN = Pattern.compile("class='token'>([A-Za-z0-9_-]+)<");
+    private static final long ADMIN_TOKEN_REFRESH_MS = 10 * 60 * 1000;
+
+    enum Operation {
+        LOGIN("login"),
+        REFRESH("refresh"),
+        LIST_USERS("listUsers"),
+        SIGNUP("signup"),
+        FORGOT_PASSWORD("forgotPassword"),
+        RESET_PASSWORD("resetPassword");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation fromKey(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equalsIgnoreCase(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation in mix: " + key);
+        }
+    }
+
+    // Per-worker state: the refresh token from that worker's last login
+    static final class WorkerState {
+        String refreshToken;
+    }
+
+    // A request ready to send; the operation may differ from the one picked (fallbacks)
+    static final class Call {
+        final Operation operation;
+        final HttpRequest request;
+
+        Call(Operation operation, HttpRequest request) {
+            this.operation = operation;
+            this.request = request;
+        }
+    }
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final int loginPool;
+    private final int resetPool;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong signups = new AtomicLong();
+    // Latest captured token per email; a newer forgot-password request invalidates the older token
+    private final Map<String, String> resetTokens = new ConcurrentHashMap<>();
+    private final Session mailSession = Session.getInstance(new Properties());
+
+    private volatile String adminToken;
+    private volatile long adminTokenIssuedAt;
+
+    Workload(HttpClient client, String baseUrl, ObjectMapper objectMapper, int users) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.resetPool = Math.max(1, users / 5);
+        this.loginPool = Math.max(1, users - resetPool);
+    }
+
+    /**
+     * Log the admin in and create the user population (not measured). The reactive stack
+     * has no bulk endpoint, so there users are created through concurrent signups.
+     */
+    void seed(boolean bulk, int parallelism) throws IOException, InterruptedException {
+        // Created at startup from app.bootstrap-admin.* in the loadtest profile
+        JsonNode admin = postJson("/login", "{\"username\":\"lt_admin\",\"password\":\"" + PASSWORD + "\"}", null);
+        if (!admin.path("success").asBoolean()) {
+            throw new IllegalStateException("Admin login failed: " + admin);
+        }
+        adminToken = admin.path("token").asText();
+        adminTokenIssuedAt = System.currentTimeMillis();
+
+        if (!bulk) {
+            seedBySignup(parallelism);
+            return;
+        }
+
+        StringBuilder csv = new StringBuilder("username,email,password,fullName\n");
+        for (int i = 0; i < loginPool + resetPool; i++) {
+            csv.append(username(i)).append(',').append(email(i)).append(',').append(PASSWORD)
+                    .append(",Load Test User ").append(i).append('\n');
+        }
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/users/bulk"))
+                .header("Content-Type", "text/csv")
+                .header("Authorization", "Bearer " + adminToken)
+                .timeout(Duration.ofMinutes(30))
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String body = response.body();
+        JsonNode summary = objectMapper.readTree(body.substring(body.lastIndexOf("{\"summary\"")));
+        if (summary.path("created").asInt() != loginPool + resetPool) {
+            throw new IllegalStateException("Seeding created " + summary.path("created").asInt() + " of "
+                    + (loginPool + resetPool) + " users");
+        }
+    }
+
+    private void seedBySignup(int parallelism) throws InterruptedException {
+        int total = loginPool + resetPool;
+        AtomicLong next = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        Thread[] threads = new Thread[Math.max(1, parallelism)];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                int i;
+                while ((i = (int) next.getAndIncrement()) < total) {
+                    try {
+                        JsonNode created = postJson("/signup", "{\"username\":\"" + username(i) + "\",\"email\":\""
+                                + email(i) + "\",\"password\":\"" + PASSWORD + "\",\"fullName\":\"Load Test User " + i + "\"}", null);
+                        if (!created.path("success").asBoolean()) {
+                            failed.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                }
+            }, "loadtest-seed-" + t);
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failed.get() > 0) {
+            throw new IllegalStateException("Seeding failed for " + failed.get() + " of " + total + " users");
+        }
+    }
+
+    Call prepare(Operation operation, WorkerState state) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (operation == Operation.REFRESH && state.refreshToken == null) {
+            operation = Operation.LOGIN;
+        }
+        String[] reset = null;
+        if (operation == Operation.RESET_PASSWORD) {
+            reset = takeResetToken();
+            if (reset == null) {
+                operation = Operation.LOGIN;
+            }
+        }
+
+        switch (operation) {
+            case LOGIN:
+                return post(operation, "/login", "{\"username\":\"" + username(random.nextInt(loginPool))
+                        + "\",\"password\":\"" + PASSWORD + "\"}", null);
+            case REFRESH:
+                return post(operation, "/refresh", "{\"refreshToken\":\"" + state.refreshToken + "\"}", null);
+            case LIST_USERS:
+                return new Call(operation, HttpRequest.newBuilder(URI.create(baseUrl + "/users?limit=50&afterId="
+                                + random.nextInt(loginPool + resetPool)))
+                        .header("Authorization", "Bearer " + adminToken())
+                        .GET()
+                        .build());
+            case SIGNUP:
+                String name = "lt_" + runId + "_" + signups.incrementAndGet();
+                return post(operation, "/signup", "{\"username\":\"" + name + "\",\"email\":\"" + name
+                        + "@loadtest.local\",\"password\":\"" + PASSWORD + "\",\"fullName\":\"Load Test Signup\"}", null);
+            case FORGOT_PASSWORD:
+                return post(operation, "/forgot-password",
+                        "{\"email\":\"" + email(loginPool + random.nextInt(resetPool)) + "\"}", null);
+            case RESET_PASSWORD:
+                return post(operation, "/reset-password", "{\"email\":\"" + reset[0] + "\",\"resetToken\":\""
+                        + reset[1] + "\",\"newPassword\":\"" + PASSWORD + "\"}", null);
+            default:
+                throw new IllegalStateException(operation.name());
+        }
+    }
+
+    HttpResponse<String> send(Call call) throws IOException, InterruptedException {
+        return client.send(call.request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Application-level success; HTTP 200 alone also covers {"success":false}
+    boolean succeeded(Operation operation, HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        return operation == Operation.LIST_USERS
+                ? response.body().startsWith("{\"users\"")
+                : response.body().contains("\"success\":true");
+    }
+
+    // Post-processing outside the measured window
+    void complete(Operation operation, WorkerState state, HttpResponse<String> response) throws IOException {
+        if ((operation == Operation.LOGIN || operation == Operation.REFRESH) && response.statusCode() == 200) {
+            JsonNode body = objectMapper.readTree(response.body());
+            state.refreshToken = body.path("success").asBoolean() ? body.path("refreshToken").asText(null) : null;
+        }
+    }
+
+    // SMTP sink listener: pick reset tokens out of password reset emails
+    void onEmail(byte[] raw) {
+        try {
+            MimeMessage message = new MimeMessage(mailSession, new ByteArrayInputStream(raw));
+            Object content = message.getContent();
+            if (content instanceof String) {
+                Matcher matcher = RESET_TOKEN.matcher((String) content);
+                if (matcher.find()) {
+                    String recipient = ((InternetAddress) message.getRecipients(Message.RecipientType.TO)[0]).getAddress();
+                    resetTokens.put(recipient, matcher.group(1));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Could not parse captured email: " + e.getMessage());
+        }
+    }
+
+    private String[] takeResetToken() {
+        Iterator<Map.Entry<String, String>> it = resetTokens.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, String> entry = it.next();
+            if (resetTokens.remove(entry.getKey(), entry.getValue())) {
+                return new String[]{entry.getKey(), entry.getValue()};
+            }
+        }
+        return null;
+    }
+
+    private Call post(Operation operation, String path, String json, String bearer) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (bearer != null) {
+            builder.header("Authorization", "Bearer " + bearer);
+        }
+        return new Call(operation, builder.build());
+    }
+
+    private JsonNode postJson(String path, String json, String bearer) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(post(null, path, json, bearer).request, HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(response.body());
+    }
+
+    // Access tokens are short-lived; log the admin in again well before expiry
+    private String adminToken() throws IOException, InterruptedException {
+        if (System.currentTimeMillis() - adminTokenIssuedAt > ADMIN_TOKEN_REFRESH_MS) {
+            synchronized (this) {
+                if (System.currentTimeMillis() - adminTokenIssuedAt > ADMIN_TOKEN_REFRESH_MS) {
+                    JsonNode login = postJson("/login", "{\"username\":\"lt_admin\",\"password\":\"" + PASSWORD + "\"}", null);
+                    adminToken = login.path("token").asText();
+                    adminTokenIssuedAt = System.currentTimeMillis();
+                }
+            }
+        }
+        return adminToken;
+    }
+
+    private static String username(int i) {
+        return "lt_user_" + i;
+    }
+
+    private static String email(int i) {
+        return "lt_user_" + i + "@loadtest.local";
+    }
+}
@@ -2,8 +2,19 @@ package com.inventory;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.ClientHttpConnectorAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC is wired by ReactiveStackConfig only in reactive mode; a second transaction
+// manager bean would make every @Transactional ambiguous. WebFlux is on the classpath
+// for the reactive server only: nothing uses WebClient, so its builder and the Reactor
+// Netty client resources are never created, on either stack.
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class,
+        WebClientAutoConfiguration.class, ClientHttpConnectorAutoConfiguration.class})
+@EnableScheduling
 public class InventoryApplication {
     
     public static void main(String[] args) {
@@ -0,0 +1,28 @@
+package com.inventory.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Response compression is configured with server.compression.*; this only lifts
+ * Tomcat's refusal to compress responses that carry a strong ETag. That refusal
+ * exists because gzip changes the bytes behind the tag: the users listing gives
+ * its gzip and identity bodies different strong ETags, so compressing them is safe.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HttpCompressionConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> strongETagCompressionCustomizer() {
+        return protocolHandler -> {
+            if (protocolHandler instanceof AbstractHttp11Protocol) {
+                ((AbstractHttp11Protocol<?>) protocolHandler).setNoCompressionStrongETag(false);
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.inventory.config;
+
+import com.inventory.security.TrustedProxies;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import javax.annotation.PreDestroy;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+/**
+ * Server and database wiring for the reactive auth API, only created when the app
+ * starts with spring.main.web-application-type=reactive: Netty event loops in front,
+ * R2DBC behind. The JPA pool stays up for the background jobs (email outbox, sweeps,
+ * key ring), which never run on the event loop.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveStackConfig {
+
+    @Value("${app.reactive.r2dbc.url}")
+    private String url;
+
+    @Value("${app.reactive.r2dbc.username:}")
+    private String username;
+
+    @Value("${app.reactive.r2dbc.password:}")
+    private String password;
+
+    @Value("${app.reactive.r2dbc.pool.initial-size:10}")
+    private int initialSize;
+
+    @Value("${app.reactive.r2dbc.pool.max-size:20}")
+    private int maxSize;
+
+    @Value("${app.reactive.r2dbc.pool.max-acquire-ms:5000}")
+    private long maxAcquireMs;
+
+    @Value("${app.trusted-proxies}")
+    private String trustedProxies;
+
+    private ConnectionPool connectionPool;
+
+    // Tomcat is on the classpath for the servlet stack and would otherwise be picked here too
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        // Netty's own forwarded handling believes any peer; only take X-Forwarded-For from app.trusted-proxies
+        TrustedProxies proxies = new TrustedProxies(trustedProxies);
+        factory.addServerCustomizers(server -> server.forwarded((info, request) -> {
+            InetSocketAddress peer = info.getRemoteAddress();
+            if (peer == null || peer.getAddress() == null) {
+                return info;
+            }
+            String address = peer.getAddress().getHostAddress();
+            String client = proxies.clientAddress(address, request.headers().get("X-Forwarded-For"));
+            return client.equals(address) ? info
+                    : info.withRemoteAddress(InetSocketAddress.createUnresolved(client, peer.getPort()));
+        }));
+        return factory;
+    }
+
+    // Only the client is a bean: a ConnectionFactory bean would switch off the JDBC DataSource auto-configuration
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options.build());
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("r2dbc-auth")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(Duration.ofMillis(maxAcquireMs))
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
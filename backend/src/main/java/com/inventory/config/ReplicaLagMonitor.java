@@ -0,0 +1,102 @@
+package com.inventory.config;
+
+import com.inventory.model.ReplicaHeartbeat;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+
+/**
+ * Measures replica lag with a heartbeat row: each check reads beat_at from the
+ * replica and the primary, then writes a new beat on the primary. The replica is
+ * usable while the difference stays within max-lag and checks keep succeeding;
+ * otherwise read-only work falls back to the primary.
+ */
+public class ReplicaLagMonitor implements MeterBinder {
+
+    private static final String SELECT_BEAT_SQL = "SELECT beat_at FROM replica_heartbeat WHERE id = " + ReplicaHeartbeat.ROW_ID;
+    private static final String UPDATE_BEAT_SQL =
+            "UPDATE replica_heartbeat SET beat_at = CURRENT_TIMESTAMP(3) WHERE id = " + ReplicaHeartbeat.ROW_ID;
+    private static final String INSERT_BEAT_SQL =
+            "INSERT INTO replica_heartbeat (id, beat_at) VALUES (" + ReplicaHeartbeat.ROW_ID + ", CURRENT_TIMESTAMP(3))";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+    private final long checkIntervalMs;
+
+    private volatile boolean replicaUsable;
+    private volatile long lagMs = -1;
+    private volatile long lastCheckAt;
+
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, long maxLagMs, long checkIntervalMs) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMs = maxLagMs;
+        this.checkIntervalMs = checkIntervalMs;
+    }
+
+    // Bound by the registry rather than injected: the registry itself depends on the DataSource
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMs)
+                .description("Replica lag in ms from the heartbeat row, -1 when unknown")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:500}")
+    public void check() {
+        try {
+            // Replica first: the primary's beat is then never older than the replica's
+            Timestamp replicaBeat = readBeat(replica);
+            Timestamp primaryBeat = readBeat(primary);
+            if (primary.update(UPDATE_BEAT_SQL) == 0) {
+                try {
+                    primary.update(INSERT_BEAT_SQL);
+                } catch (DuplicateKeyException e) {
+                    // Another instance created the row first
+                }
+            }
+            if (replicaBeat == null || primaryBeat == null) {
+                lagMs = -1;
+                replicaUsable = false;
+            } else {
+                lagMs = Math.max(0, primaryBeat.getTime() - replicaBeat.getTime());
+                replicaUsable = lagMs <= maxLagMs;
+            }
+        } catch (DataAccessException e) {
+            if (replicaUsable) {
+                System.err.println("⚠️ Replica lag check failed, reading from the primary: " + e.getMessage());
+            }
+            lagMs = -1;
+            replicaUsable = false;
+        }
+        lastCheckAt = System.currentTimeMillis();
+    }
+
+    // A stalled monitor must not keep routing to a replica it no longer watches
+    public boolean isReplicaUsable() {
+        return replicaUsable && System.currentTimeMillis() - lastCheckAt <= 3 * checkIntervalMs;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    private static Timestamp readBeat(JdbcTemplate jdbcTemplate) {
+        try {
+            return jdbcTemplate.queryForObject(SELECT_BEAT_SQL, Timestamp.class);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.inventory.config;
+
+import com.inventory.security.JwtAuthenticationFilter;
+import com.inventory.security.RouteAuthorizationTable;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class SecurityConfig {
+
+    // OPTIONS stays open for CORS preflights; HEAD is checked against the GET routes
+    private static final String[] USER_ADMIN_METHODS = {"GET", "POST", "PUT", "PATCH", "DELETE"};
+
+    // Protected routes. Outside /api/auth/users anything not listed here is public;
+    // under it anything not listed needs ADMIN, so a new endpoint is never public by omission.
+    @Bean
+    public RouteAuthorizationTable routeAuthorizationTable() {
+        RouteAuthorizationTable.Builder builder = RouteAuthorizationTable.builder();
+        for (String method : USER_ADMIN_METHODS) {
+            builder.route(method, "/api/auth/users/**", "ADMIN");
+        }
+        return builder
+                .route("GET", "/api/auth/users", "ADMIN")
+                .route("GET", "/api/auth/users/search", "ADMIN")
+                // Admins see anyone; other users only themselves (checked in the controller)
+                .route("GET", "/api/auth/users/{id}", RouteAuthorizationTable.ANY_ROLE)
+                .route("DELETE", "/api/auth/users/{id}", "ADMIN")
+                .route("PUT", "/api/auth/users/{id}/deactivate", "ADMIN")
+                .route("POST", "/api/auth/users/bulk", "ADMIN")
+                .route("GET", "/api/auth/audit", "ADMIN")
+                .build();
+    }
+
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
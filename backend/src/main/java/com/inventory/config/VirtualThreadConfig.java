@@ -0,0 +1,55 @@
+package com.inventory.config;
+
+import com.inventory.util.VirtualThreads;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.TaskSchedulerCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Opt-in virtual-thread mode (app.threads.virtual=true, needs JDK 21+).
+ * Tomcat runs each request on its own virtual thread instead of the fixed
+ * platform pool, so requests blocked on JDBC or a connection-pool wait no longer
+ * cap concurrency; scheduled jobs (email outbox, sweeps, key and revocation sync)
+ * run on virtual threads too. Password hashing keeps its bounded platform pool:
+ * it is CPU-bound and the bound is what protects the CPU.
+ * On an older JDK this logs a warning and leaves platform threads in place.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private final ThreadFactory requestThreads = VirtualThreads.factory("http-vt-");
+    private final ThreadFactory schedulerThreads = VirtualThreads.factory("scheduling-vt-");
+
+    public VirtualThreadConfig() {
+        if (requestThreads == null) {
+            System.err.println("⚠️ app.threads.virtual=true but this JVM (" + System.getProperty("java.version")
+                    + ") has no virtual threads; using platform threads");
+        } else {
+            System.out.println("🧵 Request handling and scheduled jobs run on virtual threads");
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (requestThreads != null) {
+                protocolHandler.setExecutor(VirtualThreads.perTaskExecutor(requestThreads));
+            }
+        };
+    }
+
+    @Bean
+    public TaskSchedulerCustomizer virtualThreadTaskSchedulerCustomizer() {
+        return scheduler -> {
+            if (schedulerThreads != null) {
+                scheduler.setThreadFactory(schedulerThreads);
+            }
+        };
+    }
+}
@@ -1,22 +1,63 @@
 package com.inventory.controller;
 
+import com.inventory.exception.CapacityExceededException;
+import com.inventory.exception.RateLimitExceededException;
 import com.inventory.model.*;
+import com.inventory.security.AuthRateLimiter;
+import com.inventory.security.JwtAuthenticationFilter;
+import com.inventory.service.AuthAuditLog;
 import com.inventory.service.AuthService;
+import com.inventory.service.BulkUserProvisioningService;
+import com.inventory.service.UserDirectoryVersion;
+import com.inventory.service.UserSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthController {
     
     @Autowired
     private AuthService authService;
     
+    @Autowired
+    private BulkUserProvisioningService bulkUserProvisioningService;
+    
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+    
+    @Autowired
+    private AuthAuditLog authAuditLog;
+    
+    @Autowired
+    private UserDirectoryVersion userDirectoryVersion;
+    
+    @Autowired
+    private UserSearchService userSearchService;
+    
+    // Listings may be stored by the browser but must be revalidated (cheap 304) before reuse
+    private static final CacheControl DIRECTORY_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+    
     // Test endpoint
     @GetMapping("/test")
     public ResponseEntity<String> test() {
@@ -31,16 +72,20 @@ public class AuthController {
     }
     
     // User Login
+    // getRemoteAddr() is the forwarded client address when the peer is in app.trusted-proxies
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> loginUser(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<AuthResponse> loginUser(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        authRateLimiter.checkLogin(request.getRemoteAddr(), loginRequest.getUsername());
         AuthResponse response = authService.loginUser(loginRequest);
         return ResponseEntity.ok(response);
     }
     
     // Forgot Password - Request Reset Token
     @PostMapping("/forgot-password")
-    public ResponseEntity<AuthResponse> forgotPassword(@RequestBody Map<String, String> request) {
+    public ResponseEntity<AuthResponse> forgotPassword(@RequestBody Map<String, String> request,
+                                                       HttpServletRequest httpRequest) {
         String email = request.get("email");
+        authRateLimiter.checkForgotPassword(httpRequest.getRemoteAddr(), email);
         AuthResponse response = authService.forgotPassword(email);
         return ResponseEntity.ok(response);
     }
@@ -52,18 +97,96 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
     
-    // Get all users (Admin only)
+    // Refresh Token - exchange a refresh token for a new access/refresh token pair
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refreshToken(@RequestBody Map<String, String> request) {
+        AuthResponse response = authService.refreshToken(request.get("refreshToken"));
+        return ResponseEntity.ok(response);
+    }
+    
+    // Logout - revoke the refresh token and the bearer access token
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponse> logout(@RequestBody(required = false) Map<String, String> request,
+                                               @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String refreshToken = request != null ? request.get("refreshToken") : null;
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        AuthResponse response = authService.logout(refreshToken, accessToken);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Get all users (Admin only) - 304 without a query when If-None-Match carries the current version
     @GetMapping("/users")
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = authService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserDTO>> getAllUsers(WebRequest request) {
+        return directoryResponse(request, authService::getAllUsers);
     }
     
-    // Get user by ID
+    // Get one page of users (Admin only) - pass nextAfterId back as afterId for the next page
+    @GetMapping(value = "/users", params = "limit")
+    public ResponseEntity<UserPage> getUsersPage(@RequestParam int limit,
+                                                 @RequestParam(required = false) Long afterId,
+                                                 WebRequest request) {
+        return directoryResponse(request, () -> authService.getUsersPage(afterId, limit));
+    }
+    
+    // Stream all users as NDJSON (Admin only) - memory stays flat regardless of table size
+    @GetMapping(value = "/users", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = directoryETag(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, DIRECTORY_CACHE_CONTROL.getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        authService.streamAllUsers(response.getOutputStream());
+    }
+    
+    // The version is read before the query, so a concurrent write can only make the ETag older than the body
+    private <T> ResponseEntity<T> directoryResponse(WebRequest request, Supplier<T> body) {
+        String etag = directoryETag(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (request.checkNotModified(etag)) {
+            // checkNotModified already wrote the ETag header
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(DIRECTORY_CACHE_CONTROL)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(DIRECTORY_CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING).body(body.get());
+    }
+    
+    // Tomcat gzips these bodies for clients that accept it, and a strong ETag must change with the bytes
+    private String directoryETag(String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        return userDirectoryVersion.currentETag(gzip ? "-gzip" : "");
+    }
+    
+    // Typeahead search (Admin only) - prefix of username, email or any word of the full name, with facet counts
+    @GetMapping("/users/search")
+    public ResponseEntity<?> searchUsers(@RequestParam(defaultValue = "") String q,
+                                         @RequestParam(required = false) String role,
+                                         @RequestParam(required = false) Boolean active,
+                                         @RequestParam(defaultValue = "20") int limit) {
+        if (!userSearchService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!userSearchService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(new AuthResponse(false, "User search index is still loading"));
+        }
+        return ResponseEntity.ok(userSearchService.search(q, role, active, limit));
+    }
+    
+    // Get user by ID - admins any user, everyone else only their own profile
     @GetMapping("/users/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable Long id) {
-        return authService.getUserById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<?> getUserById(@PathVariable Long id, HttpServletRequest request) {
+        Optional<UserDTO> user = authService.getUserById(id);
+        boolean admin = "ADMIN".equals(request.getAttribute(JwtAuthenticationFilter.ROLE_ATTRIBUTE));
+        Object caller = request.getAttribute(JwtAuthenticationFilter.USERNAME_ATTRIBUTE);
+        // Same answer for missing and foreign ids, so ids cannot be probed
+        if (!admin && !user.map(u -> u.getUsername().equals(caller)).orElse(false)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new AuthResponse(false, "Access denied!"));
+        }
+        return user.<ResponseEntity<?>>map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
@@ -80,4 +203,45 @@ public class AuthController {
         AuthResponse response = authService.deactivateUser(id);
         return ResponseEntity.ok(response);
     }
+    
+    // Bulk user provisioning (Admin only) - CSV or JSON-lines body, one NDJSON result per row
+    @PostMapping(value = "/users/bulk",
+            consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void bulkProvisionUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean csv = request.getContentType().toLowerCase().startsWith("text/csv");
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding("UTF-8");
+        }
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        bulkUserProvisioningService.provision(request.getReader(), csv, response.getOutputStream());
+    }
+    
+    // Authentication audit trail (Admin only) - ISO-8601 instants, defaults to the last 24 hours;
+    // returns the newest limit events in the window, newest first
+    @GetMapping("/audit")
+    public ResponseEntity<List<AuditEvent>> getAuditEvents(@RequestParam(required = false) Instant from,
+                                                           @RequestParam(required = false) Instant to,
+                                                           @RequestParam(required = false) String username,
+                                                           @RequestParam(defaultValue = "100") int limit) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofHours(24));
+        return ResponseEntity.ok(authAuditLog.query(start, end, username, limit));
+    }
+    
+    // Hashing pool saturated - fail fast so clients back off
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<AuthResponse> handleCapacityExceeded(CapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new AuthResponse(false, e.getMessage()));
+    }
+    
+    // Too many attempts for this client or account
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<AuthResponse> handleRateLimitExceeded(RateLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new AuthResponse(false, e.getMessage()));
+    }
 }
@@ -0,0 +1,33 @@
+package com.inventory.controller;
+
+import com.inventory.security.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+// Public keys for verifying access tokens locally (RFC 7517 JWK Set)
+@RestController
+@CrossOrigin(origins = "*")
+public class JwksController {
+    
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+    
+    // Must stay well below app.jwt.keys.publish-ahead-minutes so caches see a new key before it signs
+    @Value("${app.jwt.keys.jwks-max-age-seconds:300}")
+    private long jwksMaxAgeSeconds;
+    
+    @GetMapping(value = {"/.well-known/jwks.json", "/api/auth/jwks"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(jwksMaxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                .body(jwtKeyRing.getJwks());
+    }
+}
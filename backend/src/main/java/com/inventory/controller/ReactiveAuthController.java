@@ -0,0 +1,83 @@
+package com.inventory.controller;
+
+import com.inventory.exception.CapacityExceededException;
+import com.inventory.exception.RateLimitExceededException;
+import com.inventory.model.AuthResponse;
+import com.inventory.model.LoginRequest;
+import com.inventory.model.SignupRequest;
+import com.inventory.security.AuthRateLimiter;
+import com.inventory.service.ReactiveAuthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Authentication endpoints on the non-blocking stack, active when the app starts
+ * with spring.main.web-application-type=reactive. Covers the gateway-facing calls
+ * (signup and login) with the same paths and responses as AuthController; the
+ * account-management endpoints stay on the servlet deployment.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "*")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthController {
+    
+    @Autowired
+    private ReactiveAuthService reactiveAuthService;
+    
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+    
+    // Test endpoint
+    @GetMapping("/test")
+    public Mono<ResponseEntity<String>> test() {
+        return Mono.just(ResponseEntity.ok("Authentication API is working! (reactive)"));
+    }
+    
+    // User Registration
+    @PostMapping("/signup")
+    public Mono<ResponseEntity<AuthResponse>> registerUser(@RequestBody SignupRequest signupRequest, ServerHttpRequest request) {
+        return reactiveAuthService.registerUser(signupRequest, clientIp(request)).map(ResponseEntity::ok);
+    }
+    
+    // User Login
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthResponse>> loginUser(@RequestBody LoginRequest loginRequest, ServerHttpRequest request) {
+        String clientIp = clientIp(request);
+        authRateLimiter.checkLogin(clientIp, loginRequest.getUsername());
+        return reactiveAuthService.loginUser(loginRequest, clientIp).map(ResponseEntity::ok);
+    }
+    
+    // Hashing pool saturated - fail fast so clients back off
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<AuthResponse> handleCapacityExceeded(CapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new AuthResponse(false, e.getMessage()));
+    }
+    
+    // Too many attempts for this client or account
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<AuthResponse> handleRateLimitExceeded(RateLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new AuthResponse(false, e.getMessage()));
+    }
+    
+    // Forwarded client address resolved in ReactiveStackConfig; same key as getRemoteAddr() on the servlet stack
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) {
+            return null;
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+}
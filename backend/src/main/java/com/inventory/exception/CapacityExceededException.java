@@ -0,0 +1,19 @@
+package com.inventory.exception;
+
+/**
+ * Thrown when a bounded worker pool cannot accept more work.
+ * Mapped to 503 Service Unavailable with a Retry-After header.
+ */
+public class CapacityExceededException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public CapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.inventory.exception;
+
+/**
+ * Thrown when a client or account exceeds its request budget.
+ * Mapped to 429 Too Many Requests with a Retry-After header.
+ */
+public class RateLimitExceededException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,106 @@
+package com.inventory.model;
+
+import java.time.Instant;
+
+public class AuditEvent {
+
+    // Codes are stored in the journal; add new types with new codes, never renumber
+    public enum Type {
+        LOGIN_SUCCESS(1),
+        LOGIN_FAILURE(2),
+        SIGNUP(3),
+        PASSWORD_RESET_REQUESTED(4),
+        PASSWORD_RESET(5),
+        REFRESH_TOKEN_REUSE(6),
+        LOGOUT(7),
+        USER_DEACTIVATED(8),
+        USER_DELETED(9);
+
+        private final int code;
+
+        Type(int code) {
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        public static Type fromCode(int code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    private Instant timestamp;
+    private Type type;
+    private String username;
+    private String actor;
+    private String clientIp;
+    private String detail;
+
+    public AuditEvent() {}
+
+    public AuditEvent(Instant timestamp, Type type, String username, String actor, String clientIp, String detail) {
+        this.timestamp = timestamp;
+        this.type = type;
+        this.username = username;
+        this.actor = actor;
+        this.clientIp = clientIp;
+        this.detail = detail;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    // Authenticated caller when it is not the user itself (admin actions)
+    public String getActor() {
+        return actor;
+    }
+
+    public void setActor(String actor) {
+        this.actor = actor;
+    }
+
+    public String getClientIp() {
+        return clientIp;
+    }
+
+    public void setClientIp(String clientIp) {
+        this.clientIp = clientIp;
+    }
+
+    // Failure reason for LOGIN_FAILURE
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+}
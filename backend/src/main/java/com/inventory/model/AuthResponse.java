@@ -4,6 +4,7 @@ public class AuthResponse {
     private boolean success;
     private String message;
     private String token;
+    private String refreshToken;
     private UserDTO user;
     
     public AuthResponse() {}
@@ -20,6 +21,14 @@ public class AuthResponse {
         this.user = user;
     }
     
+    public AuthResponse(boolean success, String message, String token, String refreshToken, UserDTO user) {
+        this.success = success;
+        this.message = message;
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.user = user;
+    }
+    
     public boolean isSuccess() {
         return success;
     }
@@ -44,6 +53,14 @@ public class AuthResponse {
         this.token = token;
     }
     
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
     public UserDTO getUser() {
         return user;
     }
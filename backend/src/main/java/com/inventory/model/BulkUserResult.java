@@ -0,0 +1,49 @@
+package com.inventory.model;
+
+public class BulkUserResult {
+    private int row;
+    private String username;
+    private boolean success;
+    private String message;
+    
+    public BulkUserResult() {}
+    
+    public BulkUserResult(int row, String username, boolean success, String message) {
+        this.row = row;
+        this.username = username;
+        this.success = success;
+        this.message = message;
+    }
+    
+    public int getRow() {
+        return row;
+    }
+    
+    public void setRow(int row) {
+        this.row = row;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public boolean isSuccess() {
+        return success;
+    }
+    
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,104 @@
+package com.inventory.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.*;
+
+/**
+ * One key of the JWT signing key ring.
+ * A key signs from notBefore until the next key's notBefore, and is still
+ * published (and accepted) for a grace period afterwards so tokens it signed
+ * can run out. Keys are created ahead of their notBefore so that JWKS caches
+ * pick them up before the first token is signed with them.
+ */
+@Entity
+@Table(name = "jwt_signing_keys", indexes = {
+        @Index(name = "idx_jwt_signing_keys_not_before", columnList = "not_before")
+})
+public class JwtSigningKey {
+    
+    @Id
+    @Column(length = 64)
+    private String kid;
+    
+    @Column(nullable = false, length = 10)
+    private String algorithm;
+    
+    // Base64 X.509 SubjectPublicKeyInfo
+    @Column(name = "public_key", nullable = false, columnDefinition = "TEXT")
+    private String publicKey;
+    
+    // Base64 PKCS#8, or "enc:"-prefixed AES-GCM ciphertext when a key encryption secret is configured
+    @Column(name = "private_key", nullable = false, columnDefinition = "TEXT")
+    private String privateKey;
+    
+    @Column(name = "not_before", nullable = false)
+    private LocalDateTime notBefore;
+    
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public JwtSigningKey() {}
+    
+    public JwtSigningKey(String kid, String algorithm, String publicKey, String privateKey, LocalDateTime notBefore) {
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.notBefore = notBefore;
+    }
+    
+    // Getters and Setters
+    public String getKid() {
+        return kid;
+    }
+    
+    public void setKid(String kid) {
+        this.kid = kid;
+    }
+    
+    public String getAlgorithm() {
+        return algorithm;
+    }
+    
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+    
+    public String getPublicKey() {
+        return publicKey;
+    }
+    
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+    
+    public String getPrivateKey() {
+        return privateKey;
+    }
+    
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+    
+    public LocalDateTime getNotBefore() {
+        return notBefore;
+    }
+    
+    public void setNotBefore(LocalDateTime notBefore) {
+        this.notBefore = notBefore;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.inventory.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.*;
+
+/**
+ * Single-row heartbeat written to the primary and read back from the read
+ * replica; the difference between the two beat_at values is the replica lag.
+ * Only mapped so the schema tooling creates the table.
+ */
+@Entity
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+    
+    public static final int ROW_ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    // Database clock (CURRENT_TIMESTAMP(3)) so instances with skewed clocks agree
+    @Column(name = "beat_at", nullable = false, columnDefinition = "TIMESTAMP(3)")
+    private LocalDateTime beatAt;
+    
+    public ReplicaHeartbeat() {}
+    
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public LocalDateTime getBeatAt() {
+        return beatAt;
+    }
+    
+    public void setBeatAt(LocalDateTime beatAt) {
+        this.beatAt = beatAt;
+    }
+}
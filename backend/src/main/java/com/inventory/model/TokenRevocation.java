@@ -0,0 +1,85 @@
+package com.inventory.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.*;
+
+/**
+ * A revoked access token (jti set) or a per-user cutoff (username set: every
+ * token issued at or before revokedAt is rejected). Rows are only needed until
+ * the tokens they cover have expired on their own.
+ */
+@Entity
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_revoked", columnList = "revoked_at"),
+        @Index(name = "idx_token_revocations_expires", columnList = "expires_at")
+})
+public class TokenRevocation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(length = 64)
+    private String jti;
+    
+    @Column(length = 50)
+    private String username;
+    
+    // Millisecond precision: compared with the iat_ms claim of access tokens
+    @Column(name = "revoked_at", nullable = false, columnDefinition = "TIMESTAMP(3)")
+    private LocalDateTime revokedAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Constructors
+    public TokenRevocation() {}
+    
+    public TokenRevocation(String jti, String username, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        this.jti = jti;
+        this.username = username;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getJti() {
+        return jti;
+    }
+    
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+    
+    public void setRevokedAt(LocalDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
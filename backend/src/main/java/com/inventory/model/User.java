@@ -4,17 +4,31 @@ import java.time.LocalDateTime;
 import javax.persistence.*;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username"),
+        @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email")
+}, indexes = {
+        @Index(name = "idx_users_reset_token", columnList = "reset_token"),
+        @Index(name = "idx_users_reset_token_expiry", columnList = "reset_token_expiry"),
+        @Index(name = "idx_users_role_active", columnList = "role, is_active"),
+        @Index(name = "idx_users_active_last_login", columnList = "is_active, last_login"),
+        @Index(name = "idx_users_created_at", columnList = "created_at DESC"),
+        @Index(name = "idx_users_last_login", columnList = "last_login")
+})
 public class User {
     
+    // Named so a duplicate-key error can be mapped back to the field
+    public static final String UK_USERNAME = "uk_users_username";
+    public static final String UK_EMAIL = "uk_users_email";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(unique = true, nullable = false, length = 50)
+    @Column(nullable = false, length = 50)
     private String username;
     
-    @Column(unique = true, nullable = false, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
     
     @Column(nullable = false, length = 255)
@@ -38,6 +52,7 @@ public class User {
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
     
+    // SHA-256 digest of the emailed token, never the token itself
     @Column(name = "reset_token", length = 255)
     private String resetToken;
     
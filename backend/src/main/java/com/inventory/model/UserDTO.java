@@ -25,6 +25,19 @@ public class UserDTO {
         this.lastLogin = user.getLastLogin();
     }
     
+    // JPQL constructor projection - selects only the DTO columns
+    public UserDTO(Long id, String username, String email, String fullName, String role,
+                   Boolean isActive, LocalDateTime createdAt, LocalDateTime lastLogin) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.fullName = fullName;
+        this.role = role;
+        this.isActive = isActive;
+        this.createdAt = createdAt;
+        this.lastLogin = lastLogin;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
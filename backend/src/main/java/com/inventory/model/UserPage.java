@@ -0,0 +1,32 @@
+package com.inventory.model;
+
+import java.util.List;
+
+public class UserPage {
+    private List<UserDTO> users;
+    private Long nextAfterId;
+    
+    public UserPage() {}
+    
+    public UserPage(List<UserDTO> users, Long nextAfterId) {
+        this.users = users;
+        this.nextAfterId = nextAfterId;
+    }
+    
+    public List<UserDTO> getUsers() {
+        return users;
+    }
+    
+    public void setUsers(List<UserDTO> users) {
+        this.users = users;
+    }
+    
+    // Cursor for the next page, null on the last page
+    public Long getNextAfterId() {
+        return nextAfterId;
+    }
+    
+    public void setNextAfterId(Long nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+}
@@ -0,0 +1,56 @@
+package com.inventory.model;
+
+import java.util.List;
+import java.util.Map;
+
+public class UserSearchResult {
+    private List<UserDTO> users;
+    private long total;
+    private Map<String, Long> roles;
+    private Map<String, Long> status;
+
+    public UserSearchResult() {}
+
+    public UserSearchResult(List<UserDTO> users, long total, Map<String, Long> roles, Map<String, Long> status) {
+        this.users = users;
+        this.total = total;
+        this.roles = roles;
+        this.status = status;
+    }
+
+    // First matches in key order; lastLogin is not indexed and left null
+    public List<UserDTO> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserDTO> users) {
+        this.users = users;
+    }
+
+    // Users matching the query and both filters
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    // Matches per role, with the status filter applied but not the role filter
+    public Map<String, Long> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(Map<String, Long> roles) {
+        this.roles = roles;
+    }
+
+    // Matches per "active"/"inactive", with the role filter applied but not the status filter
+    public Map<String, Long> getStatus() {
+        return status;
+    }
+
+    public void setStatus(Map<String, Long> status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,34 @@
+package com.inventory.repository;
+
+import com.inventory.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    
+    // Lock timeout -2 is Hibernate's SKIP LOCKED, so several instances can drain the outbox concurrently
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status IN :statuses AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<EmailOutbox> findDueBatch(@Param("statuses") Collection<String> statuses, @Param("now") LocalDateTime now,
+                                   Pageable pageable);
+    
+    // Claimed rows, locked while their send outcome is written
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EmailOutbox e WHERE e.id IN :ids AND e.status = :status")
+    List<EmailOutbox> findClaimed(@Param("ids") Collection<Long> ids, @Param("status") String status);
+    
+    long countByStatus(String status);
+}
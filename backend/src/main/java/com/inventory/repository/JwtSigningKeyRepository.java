@@ -0,0 +1,13 @@
+package com.inventory.repository;
+
+import com.inventory.model.JwtSigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+    
+    List<JwtSigningKey> findAllByOrderByNotBeforeAscKidAsc();
+}
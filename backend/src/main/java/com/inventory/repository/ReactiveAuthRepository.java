@@ -0,0 +1,122 @@
+package com.inventory.repository;
+
+import com.inventory.model.EmailOutbox;
+import com.inventory.model.User;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+
+/**
+ * The few statements the reactive auth API needs, over R2DBC.
+ * Same tables and columns as the JPA entities; the schema is still owned by the JPA side.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthRepository {
+
+    private static final String SELECT_USER_BY_USERNAME_SQL =
+            "SELECT id, username, email, password, full_name, role, is_active, created_at, last_login "
+                    + "FROM users WHERE username = :username";
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, email, password, full_name, role, is_active, created_at, updated_at) "
+                    + "VALUES (:username, :email, :password, :fullName, :role, :isActive, :now, :now)";
+
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO email_outbox (email_type, recipient, recipient_name, payload, status, attempts, next_attempt_at, created_at) "
+                    + "VALUES (:type, :recipient, :recipientName, :payload, :status, 0, :now, :now)";
+
+    private static final String INSERT_REFRESH_TOKEN_SQL =
+            "INSERT INTO refresh_tokens (user_id, token_hash, expires_at, created_at) "
+                    + "VALUES (:userId, :tokenHash, :expiresAt, :now)";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private TransactionalOperator transactionalOperator;
+
+    // Not a bean: a second transaction manager in the context would make @Transactional ambiguous
+    @PostConstruct
+    public void init() {
+        transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(databaseClient.getConnectionFactory()));
+    }
+
+    public Mono<User> findByUsername(String username) {
+        return databaseClient.sql(SELECT_USER_BY_USERNAME_SQL)
+                .bind("username", username)
+                .map((row, metadata) -> toUser(row))
+                .one();
+    }
+
+    // Insert the user and queue its welcome email in one transaction; returns the user with its id
+    public Mono<User> insertUserWithWelcomeEmail(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        Mono<User> insert = databaseClient.sql(INSERT_USER_SQL)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .bind("username", user.getUsername())
+                .bind("email", user.getEmail())
+                .bind("password", user.getPassword())
+                .bind("fullName", user.getFullName())
+                .bind("role", user.getRole())
+                .bind("isActive", user.getIsActive())
+                .bind("now", now)
+                .map((row, metadata) -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    user.setId(id);
+                    user.setCreatedAt(now);
+                    return user;
+                })
+                .flatMap(saved -> databaseClient.sql(INSERT_OUTBOX_SQL)
+                        .bind("type", EmailOutbox.TYPE_WELCOME)
+                        .bind("recipient", saved.getEmail())
+                        .bind("recipientName", saved.getFullName())
+                        .bind("payload", saved.getUsername())
+                        .bind("status", EmailOutbox.STATUS_PENDING)
+                        .bind("now", now)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(saved));
+        return insert.as(transactionalOperator::transactional);
+    }
+
+    public Mono<Void> insertRefreshToken(Long userId, String tokenHash, LocalDateTime expiresAt) {
+        return databaseClient.sql(INSERT_REFRESH_TOKEN_SQL)
+                .bind("userId", userId)
+                .bind("tokenHash", tokenHash)
+                .bind("expiresAt", expiresAt)
+                .bind("now", LocalDateTime.now())
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    // Which key a failed signup collided with, asked only on that rare path
+    public Mono<String> findDuplicateMessage(String username, String email) {
+        return databaseClient.sql("SELECT username, email FROM users WHERE username = :username OR email = :email")
+                .bind("username", username)
+                .bind("email", email)
+                .map((row, metadata) -> username.equalsIgnoreCase(row.get("username", String.class)))
+                .all()
+                .reduce(Boolean::logicalOr)
+                .map(usernameTaken -> usernameTaken ? "Username already exists!" : "Email already exists!");
+    }
+
+    private static User toUser(Row row) {
+        User user = new User(row.get("username", String.class), row.get("email", String.class),
+                row.get("password", String.class), row.get("full_name", String.class), row.get("role", String.class));
+        user.setId(row.get("id", Long.class));
+        user.setIsActive(row.get("is_active", Boolean.class));
+        user.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        user.setLastLogin(row.get("last_login", LocalDateTime.class));
+        return user;
+    }
+}
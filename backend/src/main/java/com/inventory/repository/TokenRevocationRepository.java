@@ -0,0 +1,25 @@
+package com.inventory.repository;
+
+import com.inventory.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    
+    // Startup rebuild: everything that still covers a live token
+    List<TokenRevocation> findByExpiresAtAfterOrderById(LocalDateTime now);
+    
+    // Incremental sync of revocations written by other instances (overlapping windows; applying twice is harmless)
+    List<TokenRevocation> findByRevokedAtAfterOrderById(LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM TokenRevocation t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
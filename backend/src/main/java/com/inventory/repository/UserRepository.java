@@ -1,18 +1,38 @@
 package com.inventory.repository;
 
 import com.inventory.model.User;
+import com.inventory.model.UserDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    // Listing rows. Logins do not move the directory ETag, so lastLogin in a listing a client
+    // revalidates with 304 can lag until the next directory change
+    String USER_DTO_PROJECTION = "SELECT new com.inventory.model.UserDTO(u.id, u.username, u.email, u.fullName, "
+            + "u.role, u.isActive, u.createdAt, u.lastLogin) FROM User u ";
+    
+    // Read-only so that, with a replica configured, lookups outside a write transaction go to it
+    @Transactional(readOnly = true)
     Optional<User> findByUsername(String username);
     
+    @Transactional(readOnly = true)
     Optional<User> findByEmail(String email);
     
+    // resetToken holds a digest; see OpaqueTokenUtil
     Optional<User> findByResetToken(String resetToken);
     
     Boolean existsByUsername(String username);
@@ -22,4 +42,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(String role);
     
     List<User> findByIsActive(Boolean isActive);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.resetToken = :resetToken, u.resetTokenExpiry = :expiry, u.updatedAt = :now WHERE u.id = :id")
+    int updateResetToken(@Param("id") Long id, @Param("resetToken") String resetToken,
+                         @Param("expiry") LocalDateTime expiry, @Param("now") LocalDateTime now);
+    
+    @Query(USER_DTO_PROJECTION + "ORDER BY u.id")
+    List<UserDTO> findAllUserDtos();
+    
+    // Keyset page: rows after the given id, using the primary key index
+    @Query(USER_DTO_PROJECTION + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserDTO> findUserDtosAfter(@Param("afterId") long afterId, Pageable pageable);
+    
+    // With useCursorFetch=true MySQL reads through a server-side cursor, fetchSize rows at a time
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query(USER_DTO_PROJECTION + "ORDER BY u.id")
+    Stream<UserDTO> streamAllUserDtos();
 }
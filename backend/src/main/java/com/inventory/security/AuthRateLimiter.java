@@ -0,0 +1,121 @@
+package com.inventory.security;
+
+import com.inventory.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Locale;
+
+/**
+ * Per-IP and per-account rate limits for login and forgot-password.
+ * Checked in the controller before any database lookup, hash or email.
+ */
+@Component
+public class AuthRateLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${app.rate-limit.login.ip.capacity:20}")
+    private int loginIpCapacity;
+
+    @Value("${app.rate-limit.login.ip.per-minute:20}")
+    private double loginIpPerMinute;
+
+    @Value("${app.rate-limit.login.account.capacity:5}")
+    private int loginAccountCapacity;
+
+    @Value("${app.rate-limit.login.account.per-minute:5}")
+    private double loginAccountPerMinute;
+
+    @Value("${app.rate-limit.forgot-password.ip.capacity:5}")
+    private int forgotIpCapacity;
+
+    @Value("${app.rate-limit.forgot-password.ip.per-minute:1}")
+    private double forgotIpPerMinute;
+
+    @Value("${app.rate-limit.forgot-password.account.capacity:3}")
+    private int forgotAccountCapacity;
+
+    @Value("${app.rate-limit.forgot-password.account.per-minute:0.1}")
+    private double forgotAccountPerMinute;
+
+    private TokenBucketRateLimiter loginByIp;
+    private TokenBucketRateLimiter loginByAccount;
+    private TokenBucketRateLimiter forgotByIp;
+    private TokenBucketRateLimiter forgotByAccount;
+
+    private Counter loginIpRejected;
+    private Counter loginAccountRejected;
+    private Counter forgotIpRejected;
+    private Counter forgotAccountRejected;
+
+    @PostConstruct
+    public void init() {
+        loginByIp = new TokenBucketRateLimiter(loginIpCapacity, loginIpPerMinute, maxKeys);
+        loginByAccount = new TokenBucketRateLimiter(loginAccountCapacity, loginAccountPerMinute, maxKeys);
+        forgotByIp = new TokenBucketRateLimiter(forgotIpCapacity, forgotIpPerMinute, maxKeys);
+        forgotByAccount = new TokenBucketRateLimiter(forgotAccountCapacity, forgotAccountPerMinute, maxKeys);
+
+        loginIpRejected = rejectedCounter("login", "ip");
+        loginAccountRejected = rejectedCounter("login", "account");
+        forgotIpRejected = rejectedCounter("forgot-password", "ip");
+        forgotAccountRejected = rejectedCounter("forgot-password", "account");
+        Gauge.builder("auth.rate_limit.keys", this, limiter -> limiter.trackedKeys()).register(meterRegistry);
+    }
+
+    public void checkLogin(String clientIp, String username) {
+        check(loginByIp, clientIp, loginIpRejected);
+        check(loginByAccount, normalize(username), loginAccountRejected);
+    }
+
+    public void checkForgotPassword(String clientIp, String email) {
+        check(forgotByIp, clientIp, forgotIpRejected);
+        check(forgotByAccount, normalize(email), forgotAccountRejected);
+    }
+
+    // Drop buckets that have refilled completely
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        loginByIp.sweep();
+        loginByAccount.sweep();
+        forgotByIp.sweep();
+        forgotByAccount.sweep();
+    }
+
+    private void check(TokenBucketRateLimiter limiter, String key, Counter rejected) {
+        if (key == null) {
+            return;
+        }
+        long waitMs = limiter.tryAcquire(key);
+        if (waitMs > 0) {
+            rejected.increment();
+            throw new RateLimitExceededException("Too many attempts. Please try again later.", (waitMs + 999) / 1000);
+        }
+    }
+
+    private Counter rejectedCounter(String endpoint, String keyType) {
+        return Counter.builder("auth.rate_limit.rejected")
+                .tag("endpoint", endpoint)
+                .tag("key", keyType)
+                .register(meterRegistry);
+    }
+
+    private double trackedKeys() {
+        return loginByIp.size() + loginByAccount.size() + forgotByIp.size() + forgotByAccount.size();
+    }
+
+    // Usernames and emails compare case-insensitively in MySQL, so limit them that way too
+    private static String normalize(String key) {
+        return key == null ? null : key.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,101 @@
+package com.inventory.security;
+
+import com.inventory.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Validates the bearer token once per request for routes listed in the
+ * RouteAuthorizationTable. Public routes (login, signup, ...) pass straight through.
+ */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    // Request attributes set for downstream handlers once the token is verified
+    public static final String USERNAME_ATTRIBUTE = "auth.username";
+    public static final String ROLE_ATTRIBUTE = "auth.role";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"success\":false,\"message\":\"Authentication required!\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INVALID_TOKEN_BODY =
+            "{\"success\":false,\"message\":\"Invalid or expired token!\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] REVOKED_TOKEN_BODY =
+            "{\"success\":false,\"message\":\"Token has been revoked!\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FORBIDDEN_BODY =
+            "{\"success\":false,\"message\":\"Access denied!\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private RouteAuthorizationTable routeAuthorizationTable;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Servlet path is already decoded and stripped of path parameters, unlike the raw request URI
+        String requiredRole = routeAuthorizationTable.requiredRole(request.getMethod(), request.getServletPath());
+        if (requiredRole == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, UNAUTHORIZED_BODY);
+            return;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtil.extractAllClaims(header.substring(BEARER_PREFIX.length()));
+        } catch (JwtException | IllegalArgumentException e) {
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, INVALID_TOKEN_BODY);
+            return;
+        }
+
+        // In-memory check, no database access
+        if (tokenRevocationService.isRevoked(claims)) {
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, REVOKED_TOKEN_BODY);
+            return;
+        }
+
+        Object role = claims.get("role");
+        if (!RouteAuthorizationTable.ANY_ROLE.equals(requiredRole) && !requiredRole.equals(role)) {
+            reject(response, HttpServletResponse.SC_FORBIDDEN, FORBIDDEN_BODY);
+            return;
+        }
+
+        request.setAttribute(USERNAME_ATTRIBUTE, claims.getSubject());
+        request.setAttribute(ROLE_ATTRIBUTE, role);
+        chain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, int status, byte[] body) throws IOException {
+        response.setStatus(status);
+        // The MVC CORS mapping never runs for rejected requests, so allow the browser to read the error
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        if (status == HttpServletResponse.SC_UNAUTHORIZED) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        }
+        response.setContentType("application/json");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
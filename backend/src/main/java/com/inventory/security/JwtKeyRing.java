@@ -0,0 +1,301 @@
+package com.inventory.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.model.JwtSigningKey;
+import com.inventory.repository.JwtSigningKeyRepository;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persistent ES256 key ring for JWTs.
+ * Keys live in jwt_signing_keys so every instance signs and verifies with the
+ * same keys and tokens survive restarts. A successor key is created one
+ * publish-ahead window before the current key's rotation date; retired keys are
+ * still accepted for the access-token lifetime plus a grace period, then deleted.
+ * Public keys are published as a JWKS document for services that verify tokens locally.
+ */
+@Component
+public class JwtKeyRing {
+
+    public static final String ALGORITHM = "ES256";
+
+    private static final String ENCRYPTED_PREFIX = "enc:";
+    private static final int GCM_IV_BYTES = 12;
+    private static final int COORDINATE_BYTES = 32;
+
+    // Unknown kids trigger a reload at most this often (another instance may have just created a key)
+    private static final long MIN_RELOAD_INTERVAL_MS = 5000;
+
+    @Autowired
+    private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.jwt.keys.rotation-days:7}")
+    private long rotationDays;
+
+    @Value("${app.jwt.keys.publish-ahead-minutes:60}")
+    private long publishAheadMinutes;
+
+    @Value("${app.jwt.keys.retire-grace-minutes:5}")
+    private long retireGraceMinutes;
+
+    @Value("${app.jwt.access-token-ttl-seconds:900}")
+    private long accessTokenTtlSeconds;
+
+    // Optional secret used to encrypt private keys at rest (AES-GCM); empty stores them unencrypted
+    @Value("${app.jwt.keys.encryption-secret:}")
+    private String encryptionSecret;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private volatile KeySet keySet;
+
+    private volatile long lastReload;
+
+    // A lock rather than synchronized: reload does JDBC I/O and can run on a request's
+    // virtual thread (unknown kid), where blocking inside a monitor would pin the carrier
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    public SigningKey getSigningKey() {
+        return keySet.signingKey;
+    }
+
+    // Public key for a token's kid header
+    public PublicKey getVerificationKey(String kid) {
+        PublicKey key = kid != null ? keySet.verificationKeys.get(kid) : null;
+        if (key == null && kid != null && System.currentTimeMillis() - lastReload > MIN_RELOAD_INTERVAL_MS) {
+            reload();
+            key = keySet.verificationKeys.get(kid);
+        }
+        if (key == null) {
+            throw new JwtException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    // Serialized JWKS document with every key that may currently appear on a valid token
+    public byte[] getJwks() {
+        return keySet.jwks;
+    }
+
+    // Rotate when due, drop retired keys and pick up keys created by other instances
+    @Scheduled(fixedDelayString = "${app.jwt.keys.check-interval-ms:60000}",
+            initialDelayString = "${app.jwt.keys.check-interval-ms:60000}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            doReload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void doReload() {
+        LocalDateTime now = LocalDateTime.now();
+        List<JwtSigningKey> rows = new ArrayList<>(jwtSigningKeyRepository.findAllByOrderByNotBeforeAscKidAsc());
+
+        int current = currentIndex(rows, now);
+        if (current < 0) {
+            // Nothing usable yet: bootstrap a key that signs immediately
+            rows.add(createKey(now));
+            current = rows.size() - 1;
+        } else if (current == rows.size() - 1) {
+            LocalDateTime rotateAt = rows.get(current).getNotBefore().plusDays(rotationDays);
+            if (!now.isBefore(rotateAt.minusMinutes(publishAheadMinutes))) {
+                LocalDateTime earliest = now.plusMinutes(publishAheadMinutes);
+                rows.add(createKey(rotateAt.isAfter(earliest) ? rotateAt : earliest));
+            }
+        }
+
+        // A key retires once its successor has signed for a full token lifetime plus grace
+        List<JwtSigningKey> live = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            JwtSigningKey row = rows.get(i);
+            boolean retired = i < current
+                    && rows.get(i + 1).getNotBefore().plusSeconds(accessTokenTtlSeconds).plusMinutes(retireGraceMinutes).isBefore(now);
+            if (retired) {
+                jwtSigningKeyRepository.delete(row);
+            } else {
+                live.add(row);
+            }
+        }
+
+        keySet = buildKeySet(live, rows.get(current));
+        lastReload = System.currentTimeMillis();
+    }
+
+    // Latest key whose notBefore has passed; ties on notBefore resolve by kid on every instance
+    private static int currentIndex(List<JwtSigningKey> rows, LocalDateTime now) {
+        int current = -1;
+        for (int i = 0; i < rows.size(); i++) {
+            if (!rows.get(i).getNotBefore().isAfter(now)) {
+                current = i;
+            }
+        }
+        return current;
+    }
+
+    private JwtSigningKey createKey(LocalDateTime notBefore) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"), secureRandom);
+            KeyPair pair = generator.generateKeyPair();
+            JwtSigningKey key = new JwtSigningKey(UUID.randomUUID().toString(), ALGORITHM,
+                    Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()),
+                    protect(pair.getPrivate().getEncoded()),
+                    notBefore);
+            return jwtSigningKeyRepository.save(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate JWT signing key", e);
+        }
+    }
+
+    private KeySet buildKeySet(List<JwtSigningKey> live, JwtSigningKey current) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            Map<String, PublicKey> verificationKeys = new HashMap<>();
+            List<Map<String, String>> jwks = new ArrayList<>();
+            for (JwtSigningKey row : live) {
+                PublicKey publicKey = keyFactory.generatePublic(
+                        new X509EncodedKeySpec(Base64.getDecoder().decode(row.getPublicKey())));
+                verificationKeys.put(row.getKid(), publicKey);
+                jwks.add(toJwk(row.getKid(), (ECPublicKey) publicKey));
+            }
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(unprotect(current.getPrivateKey())));
+            byte[] document = objectMapper.writeValueAsBytes(Collections.singletonMap("keys", jwks));
+            return new KeySet(new SigningKey(current.getKid(), privateKey), verificationKeys, document);
+        } catch (GeneralSecurityException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not load JWT signing keys", e);
+        }
+    }
+
+    private static Map<String, String> toJwk(String kid, ECPublicKey key) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("x", encoder.encodeToString(toCoordinate(key.getW().getAffineX())));
+        jwk.put("y", encoder.encodeToString(toCoordinate(key.getW().getAffineY())));
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM);
+        return jwk;
+    }
+
+    // Unsigned, left-padded to the curve size as RFC 7518 requires
+    private static byte[] toCoordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length == COORDINATE_BYTES) {
+            return bytes;
+        }
+        byte[] fixed = new byte[COORDINATE_BYTES];
+        int length = Math.min(bytes.length, COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, fixed, COORDINATE_BYTES - length, length);
+        return fixed;
+    }
+
+    private String protect(byte[] privateKey) throws GeneralSecurityException {
+        if (encryptionSecret == null || encryptionSecret.isEmpty()) {
+            return Base64.getEncoder().encodeToString(privateKey);
+        }
+        byte[] iv = new byte[GCM_IV_BYTES];
+        secureRandom.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, encryptionKey(), new GCMParameterSpec(128, iv));
+        byte[] ciphertext = cipher.doFinal(privateKey);
+        byte[] out = Arrays.copyOf(iv, iv.length + ciphertext.length);
+        System.arraycopy(ciphertext, 0, out, iv.length, ciphertext.length);
+        return ENCRYPTED_PREFIX + Base64.getEncoder().encodeToString(out);
+    }
+
+    private byte[] unprotect(String stored) throws GeneralSecurityException {
+        if (!stored.startsWith(ENCRYPTED_PREFIX)) {
+            return Base64.getDecoder().decode(stored);
+        }
+        if (encryptionSecret == null || encryptionSecret.isEmpty()) {
+            throw new IllegalStateException("JWT signing keys are encrypted but app.jwt.keys.encryption-secret is not set");
+        }
+        byte[] data = Base64.getDecoder().decode(stored.substring(ENCRYPTED_PREFIX.length()));
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey(), new GCMParameterSpec(128, data, 0, GCM_IV_BYTES));
+        return cipher.doFinal(data, GCM_IV_BYTES, data.length - GCM_IV_BYTES);
+    }
+
+    private SecretKeySpec encryptionKey() throws GeneralSecurityException {
+        byte[] key = MessageDigest.getInstance("SHA-256").digest(encryptionSecret.getBytes(StandardCharsets.UTF_8));
+        return new SecretKeySpec(key, "AES");
+    }
+
+    // The key new tokens are signed with
+    public static final class SigningKey {
+        private final String kid;
+        private final PrivateKey privateKey;
+
+        private SigningKey(String kid, PrivateKey privateKey) {
+            this.kid = kid;
+            this.privateKey = privateKey;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public PrivateKey getPrivateKey() {
+            return privateKey;
+        }
+    }
+
+    // Immutable snapshot swapped in on every reload
+    private static final class KeySet {
+        private final SigningKey signingKey;
+        private final Map<String, PublicKey> verificationKeys;
+        private final byte[] jwks;
+
+        private KeySet(SigningKey signingKey, Map<String, PublicKey> verificationKeys, byte[] jwks) {
+            this.signingKey = signingKey;
+            this.verificationKeys = verificationKeys;
+            this.jwks = jwks;
+        }
+    }
+}
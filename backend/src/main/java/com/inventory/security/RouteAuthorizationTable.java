@@ -0,0 +1,149 @@
+package com.inventory.security;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route/method to role table compiled once at startup.
+ * Patterns are split into a per-method segment trie where "{var}" segments
+ * match any single path segment, and a trailing "/**" gives the role for that
+ * path and everything below it not listed more specifically, so a subtree can
+ * deny by default. HEAD is looked up as GET, since the GET handlers serve it.
+ * Lookups walk the request URI in place and allocate nothing, so unprotected
+ * routes cost a map lookup and a short walk.
+ */
+public final class RouteAuthorizationTable {
+
+    // Required role for routes any authenticated user may call
+    public static final String ANY_ROLE = "*";
+
+    private final Map<String, Node> roots;
+
+    private RouteAuthorizationTable(Map<String, Node> roots) {
+        this.roots = roots;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Role required for the route, ANY_ROLE, or null when the route is public
+     */
+    public String requiredRole(String method, String path) {
+        Node node = roots.get("HEAD".equals(method) ? "GET" : method);
+        if (node == null) {
+            return null;
+        }
+        // Role of the deepest "/**" pattern passed on the way down
+        String subtreeRole = node.subtreeRole;
+        int length = path.length();
+        int start = path.startsWith("/") ? 1 : 0;
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                node = node.child(path, start, end - start);
+                if (node == null) {
+                    return subtreeRole;
+                }
+                if (node.subtreeRole != null) {
+                    subtreeRole = node.subtreeRole;
+                }
+            }
+            start = end + 1;
+        }
+        return node.role != null ? node.role : subtreeRole;
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Node> roots = new HashMap<>();
+
+        public Builder route(String method, String pattern, String role) {
+            if ("HEAD".equals(method)) {
+                throw new IllegalArgumentException("HEAD follows the GET routes; register " + pattern + " for GET");
+            }
+            Node node = roots.computeIfAbsent(method, m -> new Node());
+            boolean subtree = pattern.endsWith("/**");
+            String path = subtree ? pattern.substring(0, pattern.length() - 3) : pattern;
+            for (String segment : path.split("/")) {
+                if (!segment.isEmpty()) {
+                    node = node.add(segment);
+                }
+            }
+            String existing = subtree ? node.subtreeRole : node.role;
+            if (existing != null && !existing.equals(role)) {
+                throw new IllegalStateException("Conflicting roles for " + method + " " + pattern);
+            }
+            if (subtree) {
+                node.subtreeRole = role;
+            } else {
+                node.role = role;
+            }
+            return this;
+        }
+
+        public RouteAuthorizationTable build() {
+            for (Node root : roots.values()) {
+                root.freeze();
+            }
+            return new RouteAuthorizationTable(new HashMap<>(roots));
+        }
+    }
+
+    private static final class Node {
+
+        private final List<String> pendingNames = new ArrayList<>();
+        private final List<Node> pendingChildren = new ArrayList<>();
+
+        private String[] names = new String[0];
+        private Node[] children = new Node[0];
+        private Node wildcard;
+        private String role;
+        private String subtreeRole;
+
+        Node add(String segment) {
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                if (wildcard == null) {
+                    wildcard = new Node();
+                }
+                return wildcard;
+            }
+            int index = pendingNames.indexOf(segment);
+            if (index >= 0) {
+                return pendingChildren.get(index);
+            }
+            Node child = new Node();
+            pendingNames.add(segment);
+            pendingChildren.add(child);
+            return child;
+        }
+
+        void freeze() {
+            names = pendingNames.toArray(new String[0]);
+            children = pendingChildren.toArray(new Node[0]);
+            for (Node child : children) {
+                child.freeze();
+            }
+            if (wildcard != null) {
+                wildcard.freeze();
+            }
+        }
+
+        // Literal segments win over a wildcard at the same level
+        Node child(String path, int offset, int length) {
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i];
+                if (name.length() == length && path.regionMatches(offset, name, 0, length)) {
+                    return children[i];
+                }
+            }
+            return wildcard;
+        }
+    }
+}
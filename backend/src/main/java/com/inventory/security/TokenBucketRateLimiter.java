@@ -0,0 +1,112 @@
+package com.inventory.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket per key.
+ * Each bucket is a single AtomicLong packing the last refill time (high 44 bits,
+ * ms since the limiter started) and the token count in thousandths (low 20 bits),
+ * updated with a CAS loop. The key map is bounded: buckets that have refilled
+ * completely carry no state and are swept first.
+ */
+public final class TokenBucketRateLimiter {
+
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long ONE_TOKEN = 1000;
+
+    private final long capacity;
+    private final double refillPerMs;
+    private final int maxKeys;
+    private final long epoch = System.currentTimeMillis();
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity        burst size in requests (at most 1000)
+     * @param refillPerMinute requests regained per minute
+     * @param maxKeys         bound on tracked keys
+     */
+    public TokenBucketRateLimiter(int capacity, double refillPerMinute, int maxKeys) {
+        if (capacity < 1 || capacity * ONE_TOKEN > TOKEN_MASK) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + TOKEN_MASK / ONE_TOKEN);
+        }
+        if (refillPerMinute <= 0) {
+            throw new IllegalArgumentException("Refill rate must be positive");
+        }
+        this.capacity = capacity * ONE_TOKEN;
+        this.refillPerMs = refillPerMinute * ONE_TOKEN / 60_000d;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Take one token for the key. Returns 0 when allowed, otherwise the
+     * milliseconds until a token will be available.
+     */
+    public long tryAcquire(String key) {
+        long now = System.currentTimeMillis() - epoch;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                sweep();
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(pack(now, capacity)));
+        }
+
+        while (true) {
+            long state = bucket.get();
+            long tokens = tokensAt(state, now);
+            if (tokens < ONE_TOKEN) {
+                return Math.max(1, (long) Math.ceil((ONE_TOKEN - tokens) / refillPerMs));
+            }
+            if (bucket.compareAndSet(state, pack(Math.max(now, timeOf(state)), tokens - ONE_TOKEN))) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Remove buckets that have refilled to capacity (no information lost);
+     * if the map is still over its bound, drop an arbitrary tenth of it
+     */
+    public void sweep() {
+        long now = System.currentTimeMillis() - epoch;
+        Iterator<AtomicLong> it = buckets.values().iterator();
+        while (it.hasNext()) {
+            if (tokensAt(it.next().get(), now) >= capacity) {
+                it.remove();
+            }
+        }
+        int excess = buckets.size() - maxKeys + Math.max(1, maxKeys / 10);
+        it = buckets.values().iterator();
+        while (excess > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+            excess--;
+        }
+    }
+
+    private long tokensAt(long state, long now) {
+        long elapsed = now - timeOf(state);
+        long tokens = state & TOKEN_MASK;
+        if (elapsed <= 0) {
+            return tokens;
+        }
+        return Math.min(capacity, tokens + (long) (elapsed * refillPerMs));
+    }
+
+    private static long timeOf(long state) {
+        return state >>> TOKEN_BITS;
+    }
+
+    private static long pack(long time, long tokens) {
+        return (time << TOKEN_BITS) | tokens;
+    }
+}
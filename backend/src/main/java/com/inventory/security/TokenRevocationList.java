@@ -0,0 +1,155 @@
+package com.inventory.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory revocation state checked on every authenticated request.
+ * Revoked token ids and per-user cutoffs live in hash maps, fronted by a Bloom
+ * filter so the common case (nothing revoked for this token or user) is a few
+ * bit probes with no map lookups. The filter cannot delete, so it is rebuilt
+ * whenever expired entries are purged.
+ */
+public final class TokenRevocationList {
+
+    private static final int HASHES = 7;
+    private static final int BITS_PER_ENTRY = 10;
+    private static final long JTI_SEED = 0xcbf29ce484222325L;
+    private static final long USER_SEED = 0x84222325cbf29ce4L;
+
+    private final int expectedEntries;
+
+    // jti -> epoch ms after which the token would have expired anyway
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, UserCutoff> userCutoffs = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    public TokenRevocationList(int expectedEntries) {
+        this.expectedEntries = Math.max(1024, expectedEntries);
+        this.filter = new BloomFilter(this.expectedEntries);
+    }
+
+    /**
+     * True if the token id was revoked, or the user was cut off at or after
+     * the token's issue time (both epoch milliseconds)
+     */
+    public boolean isRevoked(String jti, String username, long issuedAtMs) {
+        BloomFilter current = filter;
+        if (jti != null && current.mightContain(JTI_SEED, jti) && revokedTokens.containsKey(jti)) {
+            return true;
+        }
+        if (username != null && current.mightContain(USER_SEED, username)) {
+            UserCutoff cutoff = userCutoffs.get(username);
+            return cutoff != null && issuedAtMs <= cutoff.cutoffMs;
+        }
+        return false;
+    }
+
+    public void revokeToken(String jti, long expiresAtMs) {
+        revokedTokens.merge(jti, expiresAtMs, Math::max);
+        filter.put(JTI_SEED, jti);
+    }
+
+    public void revokeUser(String username, long cutoffMs, long expiresAtMs) {
+        userCutoffs.merge(username, new UserCutoff(cutoffMs, expiresAtMs), UserCutoff::max);
+        filter.put(USER_SEED, username);
+    }
+
+    public int size() {
+        return revokedTokens.size() + userCutoffs.size();
+    }
+
+    /**
+     * Drop entries whose tokens have expired and rebuild the filter from what is left
+     */
+    public int purgeExpired(long nowMs) {
+        int before = size();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= nowMs);
+        userCutoffs.values().removeIf(cutoff -> cutoff.expiresAtMs <= nowMs);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, size() * 2));
+        fill(rebuilt);
+        filter = rebuilt;
+        // Entries added while the new filter was being filled may have gone to the old one
+        fill(rebuilt);
+        return before - size();
+    }
+
+    private void fill(BloomFilter target) {
+        for (String jti : revokedTokens.keySet()) {
+            target.put(JTI_SEED, jti);
+        }
+        for (String username : userCutoffs.keySet()) {
+            target.put(USER_SEED, username);
+        }
+    }
+
+    private static final class UserCutoff {
+        private final long cutoffMs;
+        private final long expiresAtMs;
+
+        private UserCutoff(long cutoffMs, long expiresAtMs) {
+            this.cutoffMs = cutoffMs;
+            this.expiresAtMs = expiresAtMs;
+        }
+
+        static UserCutoff max(UserCutoff a, UserCutoff b) {
+            return new UserCutoff(Math.max(a.cutoffMs, b.cutoffMs), Math.max(a.expiresAtMs, b.expiresAtMs));
+        }
+    }
+
+    // Lock-free Bloom filter over an AtomicLongArray, double hashing from one 64-bit hash
+    private static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final long bitCount;
+
+        private BloomFilter(int expectedEntries) {
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, ((long) expectedEntries * BITS_PER_ENTRY + 63) / 64);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount * 64;
+        }
+
+        void put(long seed, String key) {
+            long hash = hash(seed, key);
+            long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(hash + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(long seed, String key) {
+            long hash = hash(seed, key);
+            long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(hash + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a over the chars, finished with the MurmurHash3 64-bit mixer
+        private static long hash(long seed, String key) {
+            long h = seed;
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb93fe53ec2b1L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
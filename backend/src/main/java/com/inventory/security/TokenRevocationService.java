@@ -0,0 +1,171 @@
+package com.inventory.security;
+
+import com.inventory.model.TokenRevocation;
+import com.inventory.repository.TokenRevocationRepository;
+import com.inventory.service.UserCache;
+import com.inventory.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Access-token revocation.
+ * Revocations are written to token_revocations and applied to an in-memory
+ * TokenRevocationList, which the authentication filter consults on every
+ * request without touching the database. The list is rebuilt from the table
+ * at startup and kept in step with other instances by a periodic sync. A
+ * revocation made inside a transaction reaches the list only once it commits,
+ * so a rolled-back logout or deactivation leaves no phantom entry behind.
+ * Per-user revocations also mark a credential or status change, so the sync
+ * evicts those users from this instance's UserCache.
+ */
+@Component
+public class TokenRevocationService {
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Value("${app.jwt.access-token-ttl-seconds:900}")
+    private long accessTokenTtlSeconds;
+
+    @Value("${app.jwt.revocation.expected-entries:10000}")
+    private int expectedEntries;
+
+    @Value("${app.jwt.revocation.sync-interval-ms:10000}")
+    private long syncIntervalMs;
+
+    private TokenRevocationList revocationList;
+
+    private volatile LocalDateTime lastSync;
+
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        revocationList = new TokenRevocationList(expectedEntries);
+        LocalDateTime now = LocalDateTime.now();
+        tokenRevocationRepository.findByExpiresAtAfterOrderById(now).forEach(this::apply);
+        lastSync = now;
+
+        rejectedCounter = meterRegistry.counter("jwt.revoked.rejections");
+        Gauge.builder("jwt.revocations.size", revocationList, TokenRevocationList::size).register(meterRegistry);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        boolean revoked = revocationList.isRevoked(claims.getId(), claims.getSubject(), issuedAtMs(claims));
+        if (revoked) {
+            rejectedCounter.increment();
+        }
+        return revoked;
+    }
+
+    // Revoke a single access token (logout)
+    public void revokeToken(Claims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return;
+        }
+        TokenRevocation revocation = new TokenRevocation(claims.getId(), null, LocalDateTime.now(),
+                toLocalDateTime(claims.getExpiration().getTime()));
+        tokenRevocationRepository.save(revocation);
+        applyAfterCommit(revocation);
+    }
+
+    // Revoke every access token issued to the user so far (deactivation, deletion, password reset)
+    public void revokeUser(String username) {
+        LocalDateTime now = LocalDateTime.now();
+        TokenRevocation revocation = new TokenRevocation(null, username, now, now.plusSeconds(accessTokenTtlSeconds));
+        tokenRevocationRepository.save(revocation);
+        applyAfterCommit(revocation);
+    }
+
+    /**
+     * Pick up revocations written by other instances; the window overlaps to cover late commits.
+     * A user revoked elsewhere was deactivated, deleted or had their password reset there, so
+     * the cached row (is_active, password hash) is dropped rather than served until its TTL.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-interval-ms:10000}",
+            initialDelayString = "${app.jwt.revocation.sync-interval-ms:10000}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        tokenRevocationRepository.findByRevokedAtAfterOrderById(lastSync.minusNanos(syncIntervalMs * 3_000_000L))
+                .forEach(revocation -> {
+                    apply(revocation);
+                    if (revocation.getUsername() != null) {
+                        userCache.invalidateKeys(revocation.getUsername(), null);
+                    }
+                });
+        lastSync = now;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-interval-ms:300000}",
+            initialDelayString = "${app.jwt.revocation.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        revocationList.purgeExpired(System.currentTimeMillis());
+        transactionTemplate.executeWithoutResult(status -> tokenRevocationRepository.deleteExpired(LocalDateTime.now()));
+    }
+
+    private void applyAfterCommit(TokenRevocation revocation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(revocation);
+                }
+            });
+        } else {
+            apply(revocation);
+        }
+    }
+
+    private void apply(TokenRevocation revocation) {
+        long expiresAtMs = revocation.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (revocation.getJti() != null) {
+            revocationList.revokeToken(revocation.getJti(), expiresAtMs);
+        }
+        if (revocation.getUsername() != null) {
+            long cutoffMs = revocation.getRevokedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            revocationList.revokeUser(revocation.getUsername(), cutoffMs, expiresAtMs);
+        }
+    }
+
+    /**
+     * Millisecond issue time, so a login in the same second as a revocation is not cut off with
+     * the sessions it ended. Tokens from before the claim existed count from the start of their
+     * iat second, so a cutoff in that second still rejects them.
+     */
+    private static long issuedAtMs(Claims claims) {
+        Object issuedAtMs = claims.get(JwtUtil.ISSUED_AT_MS_CLAIM);
+        if (issuedAtMs instanceof Number) {
+            return ((Number) issuedAtMs).longValue();
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null ? issuedAt.getTime() : 0;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,49 @@
+package com.inventory.security;
+
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the client address behind reverse proxies the same way Tomcat's
+ * RemoteIpValve does on the servlet stack: X-Forwarded-For is only read when the
+ * connecting peer is a trusted proxy, and is walked from the right, skipping
+ * trusted hops, so a client cannot pick its own address by prepending entries.
+ */
+public final class TrustedProxies {
+
+    private final Pattern trusted;
+
+    /**
+     * @param trustedRegex addresses of the proxies allowed to set X-Forwarded-For
+     *                     (same syntax as server.tomcat.remoteip.internal-proxies)
+     */
+    public TrustedProxies(String trustedRegex) {
+        this.trusted = Pattern.compile(trustedRegex);
+    }
+
+    public boolean isTrusted(String address) {
+        return address != null && trusted.matcher(address).matches();
+    }
+
+    /**
+     * The first untrusted hop from the right of X-Forwarded-For, or the peer
+     * itself when it is not a trusted proxy or sent no usable header
+     */
+    public String clientAddress(String peer, String forwardedFor) {
+        if (!isTrusted(peer) || forwardedFor == null || forwardedFor.isEmpty()) {
+            return peer;
+        }
+        String client = peer;
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+}
@@ -0,0 +1,59 @@
+package com.inventory.service;
+
+import com.inventory.model.User;
+import com.inventory.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the first ADMIN account at startup from app.bootstrap-admin.* when the
+ * users table has none. Self-signup always creates EMPLOYEE accounts, so on a fresh
+ * database this is how the first admin comes to exist; further admins are granted
+ * by an admin through bulk provisioning. Skipped while the password is empty.
+ */
+@Component
+public class AdminBootstrap {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserDirectoryVersion userDirectoryVersion;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Value("${app.bootstrap-admin.username:admin}")
+    private String username;
+
+    @Value("${app.bootstrap-admin.email:admin@inventory.com}")
+    private String email;
+
+    @Value("${app.bootstrap-admin.password:}")
+    private String password;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createAdminIfMissing() {
+        if (password.isEmpty() || !userRepository.findByRole("ADMIN").isEmpty()) {
+            return;
+        }
+        User admin = new User(username, email, passwordHashingService.encode(password), "Administrator", "ADMIN");
+        admin.setIsActive(true);
+        try {
+            User saved = userRepository.save(admin);
+            userDirectoryVersion.markChanged();
+            userSearchService.userSaved(saved);
+            System.out.println("👤 Bootstrap admin '" + username + "' created; change its password after the first login");
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first, or the username/email is taken by a non-admin
+            System.err.println("⚠️ Bootstrap admin '" + username + "' not created: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+}
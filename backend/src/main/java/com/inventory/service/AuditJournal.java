@@ -0,0 +1,520 @@
+package com.inventory.service;
+
+import com.inventory.model.AuditEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only binary journal in fixed-size, memory-mapped segment files.
+ *
+ * Appends take no lock: a writer reserves its bytes with getAndAdd on the active
+ * segment's tail, fills them through its own view of the mapping and publishes the
+ * record by storing the commit word last (release store). Only a writer that runs
+ * past the end of a segment takes the rotation lock. Each segment keeps a sparse
+ * in-memory index per 4 KB block (first record offset, min/max timestamp and a
+ * 256-bit bloom filter of usernames), so time-range and per-user queries scan only
+ * blocks that can match. Segments are never written again once rotated. On
+ * startup the index of every existing segment is rebuilt by a scan and appends
+ * resume at the recovered tail of the newest one, so restarts do not use up
+ * segments. A slot whose writer died between reserving it and storing its length
+ * reads as zeros; scans step over it to the next intact record.
+ *
+ * Record layout, little-endian and 8-byte aligned:
+ * int length | int commit | long epoch millis | byte type | byte 0 |
+ * (short length + UTF-8 bytes) for username, actor, client IP and detail
+ */
+public final class AuditJournal implements Closeable {
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final int COMMITTED = 0x54445541;
+    private static final int PADDING = 0x44444150;
+    private static final int HEADER_BYTES = 18;
+    private static final int BLOCK_SHIFT = 12;
+    private static final int BLOOM_WORDS = 4;
+
+    private static final int MAX_USERNAME_BYTES = 255;
+    private static final int MAX_ACTOR_BYTES = 255;
+    private static final int MAX_IP_BYTES = 64;
+    private static final int MAX_DETAIL_BYTES = 512;
+
+    private static final byte[] NULL_FIELD = new byte[0];
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final ReentrantLock rotateLock = new ReentrantLock();
+    private volatile Segment active;
+
+    /**
+     * @param segmentSize bytes per segment file, a multiple of 4 KB (at least 64 KB)
+     * @param maxSegments segment files kept; the oldest is deleted on rotation
+     */
+    public AuditJournal(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize < (64 << 10) || segmentSize % (1 << BLOCK_SHIFT) != 0) {
+            throw new IllegalArgumentException("Segment size must be a multiple of 4 KB and at least 64 KB");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(1, maxSegments);
+
+        Files.createDirectories(directory);
+        List<Path> existing = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            files.forEach(existing::add);
+        }
+        existing.sort(null);
+        long sequence = 0;
+        Segment resumed = null;
+        for (int i = 0; i < existing.size(); i++) {
+            Path path = existing.get(i);
+            // Only the newest segment is reopened for writing, and only if it still has this segment size
+            boolean newest = i == existing.size() - 1 && Files.size(path) == segmentSize;
+            Segment segment = openExisting(path, newest);
+            if (segment != null) {
+                segments.add(segment);
+                sequence = Math.max(sequence, segment.sequence);
+                if (newest && segment.tail.get() < segment.capacity) {
+                    resumed = segment;
+                }
+            }
+        }
+        if (resumed != null) {
+            active = resumed;
+        } else {
+            active = createSegment(sequence + 1);
+            segments.add(active);
+        }
+        trimSegments();
+    }
+
+    /**
+     * Append one event. Returns false only when the journal is closed or a new
+     * segment could not be created.
+     */
+    public boolean append(long timestamp, AuditEvent.Type type, String username, String actor, String clientIp,
+                          String detail) {
+        byte[] user = utf8(username, MAX_USERNAME_BYTES);
+        byte[] actorBytes = utf8(actor, MAX_ACTOR_BYTES);
+        byte[] ip = utf8(clientIp, MAX_IP_BYTES);
+        byte[] detailBytes = utf8(detail, MAX_DETAIL_BYTES);
+        int length = align(HEADER_BYTES + 8 + user.length + actorBytes.length + ip.length + detailBytes.length);
+        String key = usernameKey(username);
+
+        while (true) {
+            Segment segment = active;
+            if (segment == null) {
+                return false;
+            }
+            int offset = segment.tail.getAndAdd(length);
+            if (offset + length <= segment.capacity) {
+                // Length first so readers can step over the record while it is being filled
+                INT.setRelease(segment.buffer, offset, length);
+                ByteBuffer view = segment.buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                view.position(offset + 8);
+                view.putLong(timestamp).put((byte) type.getCode()).put((byte) 0);
+                putField(view, user);
+                putField(view, actorBytes);
+                putField(view, ip);
+                putField(view, detailBytes);
+                segment.index(offset, timestamp, key);
+                INT.setRelease(segment.buffer, offset + 4, COMMITTED);
+                return true;
+            }
+            if (offset < segment.capacity) {
+                // The writer that crossed the end pads out the remainder; later ones only see a full segment
+                INT.setRelease(segment.buffer, offset, segment.capacity - offset);
+                INT.setRelease(segment.buffer, offset + 4, PADDING);
+            }
+            if (!rotate(segment)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Events with from <= timestamp <= to, optionally for one username
+     * (case-insensitive): the newest limit of them, newest first. Segments and
+     * blocks are visited from the end, so a query stops once it has enough.
+     */
+    public List<AuditEvent> query(long from, long to, String username, int limit) {
+        List<AuditEvent> results = new ArrayList<>();
+        List<AuditEvent> block = new ArrayList<>();
+        String key = usernameKey(username);
+        // Snapshot: rotation may drop the oldest segment meanwhile
+        Segment[] snapshot = segments.toArray(new Segment[0]);
+        for (int s = snapshot.length - 1; s >= 0 && results.size() < limit; s--) {
+            Segment segment = snapshot[s];
+            if (segment.minTimestamp.get() > to || segment.maxTimestamp.get() < from) {
+                continue;
+            }
+            int end = Math.min(segment.tail.get(), segment.capacity);
+            int blocks = (end + (1 << BLOCK_SHIFT) - 1) >>> BLOCK_SHIFT;
+            for (int b = blocks - 1; b >= 0 && results.size() < limit; b--) {
+                if (segment.mayContain(b, from, to, key)) {
+                    int blockEnd = Math.min(end, (b + 1) << BLOCK_SHIFT);
+                    // Records can only be walked forwards; take the block's matches from its end
+                    block.clear();
+                    scanBlock(segment, segment.blockFirstOffset.get(b), blockEnd, from, to, key, block);
+                    for (int i = block.size() - 1; i >= 0 && results.size() < limit; i--) {
+                        results.add(block.get(i));
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    // Flush dirty pages of the active segment to disk
+    public void force() {
+        Segment segment = active;
+        if (segment != null) {
+            segment.buffer.force();
+        }
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public long getActiveSegmentUsed() {
+        Segment segment = active;
+        return segment != null ? Math.min(segment.tail.get(), segment.capacity) : 0;
+    }
+
+    @Override
+    public void close() {
+        rotateLock.lock();
+        try {
+            force();
+            active = null;
+        } finally {
+            rotateLock.unlock();
+        }
+    }
+
+    private void scanBlock(Segment segment, int position, int blockEnd, long from, long to, String key,
+                           List<AuditEvent> results) {
+        while (position < blockEnd) {
+            int length = (int) INT.getAcquire(segment.buffer, position);
+            if (!validLength(segment, position, length)) {
+                // Reserved but not yet written (or never will be): carry on from the next intact record
+                position = nextRecord(segment, position, blockEnd);
+                continue;
+            }
+            if ((int) INT.getAcquire(segment.buffer, position + 4) == COMMITTED) {
+                AuditEvent event = decode(segment.buffer, position);
+                long timestamp = event.getTimestamp().toEpochMilli();
+                if (timestamp >= from && timestamp <= to
+                        && (key == null || key.equals(usernameKey(event.getUsername())))) {
+                    results.add(event);
+                }
+            }
+            position += length;
+        }
+    }
+
+    private boolean rotate(Segment full) {
+        rotateLock.lock();
+        try {
+            if (active != full) {
+                return active != null;
+            }
+            Segment next = createSegment(full.sequence + 1);
+            segments.add(next);
+            active = next;
+            full.buffer.force();
+            trimSegments();
+            return true;
+        } catch (IOException e) {
+            System.err.println("❌ Audit journal rotation failed: " + e.getMessage());
+            return false;
+        } finally {
+            rotateLock.unlock();
+        }
+    }
+
+    // Deleting a mapped file is safe: the mapping stays valid until it is collected
+    private void trimSegments() {
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.remove(0);
+            try {
+                Files.deleteIfExists(oldest.path);
+            } catch (IOException e) {
+                System.err.println("⚠️ Could not delete audit segment " + oldest.path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Segment createSegment(long sequence) throws IOException {
+        Path path = directory.resolve(String.format(Locale.ROOT, "%s%012d%s", PREFIX, sequence, SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            return new Segment(sequence, path, buffer, segmentSize);
+        }
+    }
+
+    /**
+     * Map an existing segment and rebuild its index. Torn slots are stepped over;
+     * the tail is set after the last record so a writable segment resumes there.
+     */
+    private Segment openExisting(Path path, boolean writable) throws IOException {
+        String name = path.getFileName().toString();
+        long sequence;
+        try {
+            sequence = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        StandardOpenOption[] options = writable
+                ? new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[] {StandardOpenOption.READ};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            long size = channel.size() & ~((1L << BLOCK_SHIFT) - 1);
+            if (size == 0 || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(
+                    writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+            Segment segment = new Segment(sequence, path, buffer, (int) size);
+            int position = 0;
+            int tail = 0;
+            while (position + 8 <= segment.capacity) {
+                int length = (int) INT.getAcquire(buffer, position);
+                if (!validLength(segment, position, length)) {
+                    position = nextRecord(segment, position, segment.capacity);
+                    continue;
+                }
+                if ((int) INT.getAcquire(buffer, position + 4) == COMMITTED) {
+                    AuditEvent event = decode(buffer, position);
+                    segment.index(position, event.getTimestamp().toEpochMilli(), usernameKey(event.getUsername()));
+                }
+                position += length;
+                tail = position;
+            }
+            segment.tail.set(tail);
+            if (writable && !isZero(buffer, tail, segment.capacity)) {
+                // Leftovers of a torn slot must not pass for the commit word of a record written over them
+                clear(buffer, tail, segment.capacity);
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * The first 8-byte-aligned offset after position, below end, holding a complete
+     * record (or end). A committed record is recognised by its commit word and by a
+     * length that matches its encoded fields.
+     */
+    private static int nextRecord(Segment segment, int position, int end) {
+        for (int candidate = position + 8; candidate + 8 <= end; candidate += 8) {
+            int length = (int) INT.getAcquire(segment.buffer, candidate);
+            if (!validLength(segment, candidate, length)) {
+                continue;
+            }
+            int commit = (int) INT.getAcquire(segment.buffer, candidate + 4);
+            if (commit == PADDING ? candidate + length == segment.capacity
+                    : commit == COMMITTED && encodedLength(segment.buffer, candidate, length) == length) {
+                return candidate;
+            }
+        }
+        return end;
+    }
+
+    // Aligned length implied by the record's field lengths, or -1 if they run past maxLength
+    private static int encodedLength(ByteBuffer buffer, int position, int maxLength) {
+        ByteBuffer view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int used = HEADER_BYTES;
+        for (int field = 0; field < 4; field++) {
+            if (used + 2 > maxLength) {
+                return -1;
+            }
+            short length = view.getShort(position + used);
+            used += 2 + Math.max(0, length);
+        }
+        return used <= maxLength ? align(used) : -1;
+    }
+
+    private static boolean isZero(ByteBuffer buffer, int from, int to) {
+        ByteBuffer view = buffer.duplicate();
+        for (int position = from; position + 8 <= to; position += 8) {
+            if (view.getLong(position) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void clear(MappedByteBuffer buffer, int from, int to) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(from);
+        byte[] zeros = new byte[1 << BLOCK_SHIFT];
+        while (view.position() < to) {
+            view.put(zeros, 0, Math.min(zeros.length, to - view.position()));
+        }
+        buffer.force();
+    }
+
+    private static boolean validLength(Segment segment, int position, int length) {
+        return length > 0 && (length & 7) == 0 && position + length <= segment.capacity;
+    }
+
+    private static AuditEvent decode(ByteBuffer buffer, int position) {
+        ByteBuffer view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        view.position(position + 8);
+        long timestamp = view.getLong();
+        AuditEvent.Type type = AuditEvent.Type.fromCode(view.get());
+        view.get();
+        String username = getField(view);
+        String actor = getField(view);
+        String clientIp = getField(view);
+        String detail = getField(view);
+        return new AuditEvent(Instant.ofEpochMilli(timestamp), type, username, actor, clientIp, detail);
+    }
+
+    // Absent fields are stored as length -1
+    private static void putField(ByteBuffer view, byte[] value) {
+        if (value == NULL_FIELD) {
+            view.putShort((short) -1);
+        } else {
+            view.putShort((short) value.length).put(value);
+        }
+    }
+
+    private static String getField(ByteBuffer view) {
+        short length = view.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // UTF-8, cut at maxBytes without splitting a character
+    private static byte[] utf8(String value, int maxBytes) {
+        if (value == null) {
+            return NULL_FIELD;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= maxBytes) {
+            return bytes;
+        }
+        int end = maxBytes;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        byte[] truncated = new byte[end];
+        System.arraycopy(bytes, 0, truncated, 0, end);
+        return truncated;
+    }
+
+    private static int align(int length) {
+        return (length + 7) & ~7;
+    }
+
+    // Usernames compare case-insensitively in MySQL, so match them that way here too
+    private static String usernameKey(String username) {
+        return username != null ? username.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static final class Segment {
+        private final long sequence;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final AtomicInteger tail;
+
+        private final AtomicIntegerArray blockFirstOffset;
+        private final AtomicLongArray blockMinTimestamp;
+        private final AtomicLongArray blockMaxTimestamp;
+        private final AtomicLongArray blockBloom;
+        private final AtomicLong minTimestamp = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong maxTimestamp = new AtomicLong(Long.MIN_VALUE);
+
+        private Segment(long sequence, Path path, MappedByteBuffer buffer, int capacity) {
+            this.sequence = sequence;
+            this.path = path;
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.tail = new AtomicInteger();
+            int blocks = this.capacity >>> BLOCK_SHIFT;
+            blockFirstOffset = new AtomicIntegerArray(blocks);
+            blockMinTimestamp = new AtomicLongArray(blocks);
+            blockMaxTimestamp = new AtomicLongArray(blocks);
+            blockBloom = new AtomicLongArray(blocks * BLOOM_WORDS);
+            for (int i = 0; i < blocks; i++) {
+                blockFirstOffset.set(i, Integer.MAX_VALUE);
+                blockMinTimestamp.set(i, Long.MAX_VALUE);
+                blockMaxTimestamp.set(i, Long.MIN_VALUE);
+            }
+        }
+
+        // Index a record by the block it starts in
+        void index(int offset, long timestamp, String usernameKey) {
+            int block = offset >>> BLOCK_SHIFT;
+            blockFirstOffset.accumulateAndGet(block, offset, Math::min);
+            blockMinTimestamp.accumulateAndGet(block, timestamp, Math::min);
+            blockMaxTimestamp.accumulateAndGet(block, timestamp, Math::max);
+            minTimestamp.accumulateAndGet(timestamp, Math::min);
+            maxTimestamp.accumulateAndGet(timestamp, Math::max);
+            if (usernameKey != null) {
+                int hash = usernameKey.hashCode() * 0x9E3779B9;
+                setBloomBit(block, hash >>> 24);
+                setBloomBit(block, (hash >>> 16) & 0xFF);
+            }
+        }
+
+        boolean mayContain(int block, long from, long to, String usernameKey) {
+            if (blockFirstOffset.get(block) == Integer.MAX_VALUE
+                    || blockMinTimestamp.get(block) > to || blockMaxTimestamp.get(block) < from) {
+                return false;
+            }
+            if (usernameKey == null) {
+                return true;
+            }
+            int hash = usernameKey.hashCode() * 0x9E3779B9;
+            return hasBloomBit(block, hash >>> 24) && hasBloomBit(block, (hash >>> 16) & 0xFF);
+        }
+
+        private void setBloomBit(int block, int bit) {
+            long mask = 1L << (bit & 63);
+            int word = block * BLOOM_WORDS + (bit >>> 6);
+            if ((blockBloom.get(word) & mask) == 0) {
+                blockBloom.getAndAccumulate(word, mask, (current, m) -> current | m);
+            }
+        }
+
+        private boolean hasBloomBit(int block, int bit) {
+            return (blockBloom.get(block * BLOOM_WORDS + (bit >>> 6)) & (1L << (bit & 63))) != 0;
+        }
+    }
+}
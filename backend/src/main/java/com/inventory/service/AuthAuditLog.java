@@ -0,0 +1,147 @@
+package com.inventory.service;
+
+import com.inventory.model.AuditEvent;
+import com.inventory.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durable trail of authentication events (logins, failures, resets, deactivations,
+ * deletes) in the memory-mapped AuditJournal. Appending costs a few hundred
+ * nanoseconds on the request thread and no database work; pages are synced to
+ * disk every sync interval and on shutdown. Events inside a transaction are only
+ * written once it commits.
+ */
+@Service
+public class AuthAuditLog {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.audit.dir:audit-log}")
+    private String directory;
+
+    @Value("${app.audit.segment-size-mb:16}")
+    private int segmentSizeMb;
+
+    @Value("${app.audit.max-segments:64}")
+    private int maxSegments;
+
+    @Value("${app.audit.query.max-results:1000}")
+    private int maxResults;
+
+    private AuditJournal journal;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            try {
+                journal = new AuditJournal(Paths.get(directory), segmentSizeMb << 20, maxSegments);
+                System.out.println("✅ Audit journal opened in " + Paths.get(directory).toAbsolutePath());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("❌ Could not open audit journal in " + directory + ", events will be dropped: " + e.getMessage());
+            }
+        }
+        FunctionCounter.builder("audit.events.written", written, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("audit.events.dropped", dropped, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("audit.segments", this, log -> log.journal != null ? log.journal.getSegmentCount() : 0)
+                .register(meterRegistry);
+    }
+
+    // Client IP and acting admin are taken from the current servlet request, when there is one
+    public void record(AuditEvent.Type type, String username, String detail) {
+        record(type, username, currentClientIp(), detail);
+    }
+
+    public void record(AuditEvent.Type type, String username, String clientIp, String detail) {
+        if (!enabled) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        String actor = currentActor(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(timestamp, type, username, actor, clientIp, detail);
+                }
+            });
+        } else {
+            append(timestamp, type, username, actor, clientIp, detail);
+        }
+    }
+
+    // The newest events in [from, to], optionally for one username, newest first
+    public List<AuditEvent> query(Instant from, Instant to, String username, int limit) {
+        if (journal == null) {
+            return Collections.emptyList();
+        }
+        return journal.query(from.toEpochMilli(), to.toEpochMilli(), username, Math.max(1, Math.min(limit, maxResults)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.sync-interval-ms:1000}")
+    public void sync() {
+        if (journal != null) {
+            journal.force();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void append(long timestamp, AuditEvent.Type type, String username, String actor, String clientIp,
+                        String detail) {
+        if (journal != null && journal.append(timestamp, type, username, actor, clientIp, detail)) {
+            written.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private static String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) attributes).getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    // The authenticated caller, unless it is the subject of the event
+    private static String currentActor(String username) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object actor = attributes.getAttribute(JwtAuthenticationFilter.USERNAME_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return actor != null && !actor.equals(username) ? actor.toString() : null;
+    }
+}
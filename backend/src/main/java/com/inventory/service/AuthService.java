@@ -1,18 +1,34 @@
 package com.inventory.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.exception.CapacityExceededException;
 import com.inventory.model.*;
 import com.inventory.repository.UserRepository;
+import com.inventory.security.TokenRevocationService;
 import com.inventory.util.JwtUtil;
+import com.inventory.util.OpaqueTokenUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AuthService {
@@ -24,59 +40,143 @@ public class AuthService {
     private JwtUtil jwtUtil;
     
     @Autowired
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
     
-    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordHashingService passwordHashingService;
     
-    // User Registration
-    @Transactional
+    @Autowired
+    private LoginActivityRecorder loginActivityRecorder;
+    
+    @Autowired
+    private UserCache userCache;
+    
+    @Autowired
+    private OpaqueTokenUtil opaqueTokenUtil;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private AuthAuditLog authAuditLog;
+    
+    @Autowired
+    private UserDirectoryVersion userDirectoryVersion;
+    
+    @Autowired
+    private UserSearchService userSearchService;
+    
+    @Value("${app.users.max-page-size:200}")
+    private int maxPageSize;
+    
+    private static final int STREAM_FLUSH_ROWS = 500;
+    
+    // Login outcomes (auth.login{outcome=...})
+    private Counter loginSuccess;
+    private Counter loginUnknownUser;
+    private Counter loginBadPassword;
+    private Counter loginDeactivated;
+    private Counter loginError;
+    
+    @PostConstruct
+    public void registerMetrics() {
+        loginSuccess = loginCounter("success");
+        loginUnknownUser = loginCounter("unknown_user");
+        loginBadPassword = loginCounter("bad_password");
+        loginDeactivated = loginCounter("deactivated");
+        loginError = loginCounter("error");
+    }
+    
+    private Counter loginCounter(String outcome) {
+        return Counter.builder("auth.login").tag("outcome", outcome).register(meterRegistry);
+    }
+    
+    // User Registration - one INSERT; the unique keys on username/email reject duplicates
     public AuthResponse registerUser(SignupRequest signupRequest) {
         try {
-            // Check if username exists
-            if (userRepository.existsByUsername(signupRequest.getUsername())) {
-                return new AuthResponse(false, "Username already exists!");
-            }
-            
-            // Check if email exists
-            if (userRepository.existsByEmail(signupRequest.getEmail())) {
-                return new AuthResponse(false, "Email already exists!");
-            }
-            
-            // Create new user
+            // Create new user (hashed before the transaction so no connection is held meanwhile)
             User user = new User();
             user.setUsername(signupRequest.getUsername());
             user.setEmail(signupRequest.getEmail());
-            user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
+            user.setPassword(passwordHashingService.encode(signupRequest.getPassword()));
             user.setFullName(signupRequest.getFullName());
-            user.setRole(signupRequest.getRole() != null ? signupRequest.getRole() : "EMPLOYEE");
+            // Self-signup never picks its role; admins grant roles through bulk provisioning
+            user.setRole("EMPLOYEE");
             user.setIsActive(true);
             
-            User savedUser = userRepository.save(user);
-            
-            // Send welcome email (non-blocking)
-            try {
-                emailService.sendWelcomeEmail(savedUser.getEmail(), savedUser.getFullName(), savedUser.getUsername());
-            } catch (Exception e) {
-                System.err.println("⚠️ Failed to send welcome email, but registration succeeded: " + e.getMessage());
-            }
-            
-            // Generate JWT token
+            User savedUser = transactionTemplate.execute(status -> {
+                User saved = userRepository.save(user);
+                userCache.invalidate(saved);
+                userDirectoryVersion.markChanged();
+                userSearchService.userSaved(saved);
+                
+                // Queue welcome email (sent by the outbox dispatcher after commit)
+                emailOutboxService.queueWelcomeEmail(saved);
+                authAuditLog.record(AuditEvent.Type.SIGNUP, saved.getUsername(), null);
+                return saved;
+            });
+            
+            // Generate JWT access token and refresh token
             String token = jwtUtil.generateToken(savedUser.getUsername(), savedUser.getRole());
+            String refreshToken = refreshTokenService.issue(savedUser.getId());
             
-            return new AuthResponse(true, "User registered successfully!", token, new UserDTO(savedUser));
+            return new AuthResponse(true, "User registered successfully!", token, refreshToken, new UserDTO(savedUser));
             
+        } catch (DataIntegrityViolationException e) {
+            String duplicate = duplicateUserMessage(e, signupRequest);
+            return new AuthResponse(false, duplicate != null ? duplicate : "Registration failed: " + e.getMostSpecificCause().getMessage());
+        } catch (CapacityExceededException e) {
+            throw e;
         } catch (Exception e) {
             return new AuthResponse(false, "Registration failed: " + e.getMessage());
         }
     }
     
-    // User Login
-    @Transactional
+    // Map a unique-key violation back to the field that collided
+    private String duplicateUserMessage(DataIntegrityViolationException e, SignupRequest signupRequest) {
+        if (e.getCause() instanceof ConstraintViolationException) {
+            String constraint = ((ConstraintViolationException) e.getCause()).getConstraintName();
+            if (constraint != null) {
+                constraint = constraint.toLowerCase(Locale.ROOT);
+                if (constraint.contains(User.UK_USERNAME) || constraint.endsWith("username")) {
+                    return "Username already exists!";
+                }
+                if (constraint.contains(User.UK_EMAIL) || constraint.endsWith("email")) {
+                    return "Email already exists!";
+                }
+            }
+        }
+        
+        // Unrecognised key name (e.g. generated by an older schema) - ask the database on this rare path
+        if (userRepository.existsByUsername(signupRequest.getUsername())) {
+            return "Username already exists!";
+        }
+        if (userRepository.existsByEmail(signupRequest.getEmail())) {
+            return "Email already exists!";
+        }
+        return null;
+    }
+    
+    // User Login (no transaction: the user comes from the near-cache, writes are done behind)
     public AuthResponse loginUser(LoginRequest loginRequest) {
         try {
-            Optional<User> userOptional = userRepository.findByUsername(loginRequest.getUsername());
+            Optional<User> userOptional = userCache.findByUsername(loginRequest.getUsername());
             
             if (!userOptional.isPresent()) {
+                loginUnknownUser.increment();
+                authAuditLog.record(AuditEvent.Type.LOGIN_FAILURE, loginRequest.getUsername(), "unknown_user");
                 return new AuthResponse(false, "Invalid username or password!");
             }
             
@@ -84,33 +184,62 @@ public class AuthService {
             
             // Check if user is active
             if (!user.getIsActive()) {
+                loginDeactivated.increment();
+                authAuditLog.record(AuditEvent.Type.LOGIN_FAILURE, user.getUsername(), "deactivated");
                 return new AuthResponse(false, "Account is deactivated. Contact administrator.");
             }
             
             // Verify password
-            if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+            if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())) {
+                loginBadPassword.increment();
+                authAuditLog.record(AuditEvent.Type.LOGIN_FAILURE, user.getUsername(), "bad_password");
                 return new AuthResponse(false, "Invalid username or password!");
             }
             
-            // Update last login
-            user.setLastLogin(LocalDateTime.now());
-            userRepository.save(user);
+            // Migrate hashes written with another algorithm or cost
+            rehashIfNeeded(user, loginRequest.getPassword());
             
-            // Generate JWT token
+            // Record last login; the entity copy only feeds the response
+            LocalDateTime loginTime = LocalDateTime.now();
+            user.setLastLogin(loginTime);
+            loginActivityRecorder.recordLogin(user.getId(), loginTime);
+            
+            // Generate JWT access token and refresh token
             String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
+            String refreshToken = refreshTokenService.issue(user.getId());
             
-            return new AuthResponse(true, "Login successful!", token, new UserDTO(user));
+            loginSuccess.increment();
+            authAuditLog.record(AuditEvent.Type.LOGIN_SUCCESS, user.getUsername(), null);
+            return new AuthResponse(true, "Login successful!", token, refreshToken, new UserDTO(user));
             
+        } catch (CapacityExceededException e) {
+            loginError.increment();
+            throw e;
         } catch (Exception e) {
+            loginError.increment();
             return new AuthResponse(false, "Login failed: " + e.getMessage());
         }
     }
     
+    // Upgrade a stale hash while the raw password is at hand
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            String newHash = passwordHashingService.encode(rawPassword);
+            loginActivityRecorder.recordRehash(user.getId(), user.getPassword(), newHash);
+            userCache.updatePassword(user.getId(), user.getPassword(), newHash);
+        } catch (CapacityExceededException e) {
+            // Pool is busy - leave the old hash, it will be migrated on a later login
+        }
+    }
+    
     // Forgot Password - Generate Reset Token and Send Email
     @Transactional
     public AuthResponse forgotPassword(String email) {
         try {
-            Optional<User> userOptional = userRepository.findByEmail(email);
+            Optional<User> userOptional = userCache.findByEmail(email);
             
             if (!userOptional.isPresent()) {
                 return new AuthResponse(false, "Email not found!");
@@ -118,22 +247,16 @@ public class AuthService {
             
             User user = userOptional.get();
             
-            // Generate reset token
-            String resetToken = UUID.randomUUID().toString();
-            user.setResetToken(resetToken);
-            user.setResetTokenExpiry(LocalDateTime.now().plusHours(1)); // Token valid for 1 hour
+            // Generate reset token (Token valid for 1 hour) - only its digest is stored, in a single UPDATE
+            String resetToken = opaqueTokenUtil.generateToken();
+            LocalDateTime now = LocalDateTime.now();
+            userRepository.updateResetToken(user.getId(), opaqueTokenUtil.digest(resetToken), now.plusHours(1), now);
             
-            userRepository.save(user);
+            // Queue password reset email (sent by the outbox dispatcher after commit)
+            emailOutboxService.queuePasswordResetEmail(user, resetToken);
+            authAuditLog.record(AuditEvent.Type.PASSWORD_RESET_REQUESTED, user.getUsername(), null);
             
-            // Send password reset email
-            try {
-                emailService.sendPasswordResetEmail(user.getEmail(), resetToken, user.getFullName());
-                return new AuthResponse(true, "Password reset email sent! Please check your inbox.");
-            } catch (Exception e) {
-                System.err.println("❌ Failed to send email: " + e.getMessage());
-                // Return token in response as fallback (for testing)
-                return new AuthResponse(true, "Email sending failed. Reset token: " + resetToken + " (Valid for 1 hour)");
-            }
+            return new AuthResponse(true, "Password reset email sent! Please check your inbox.");
             
         } catch (Exception e) {
             return new AuthResponse(false, "Failed to generate reset token: " + e.getMessage());
@@ -144,59 +267,192 @@ public class AuthService {
     @Transactional
     public AuthResponse resetPassword(ResetPasswordRequest resetRequest) {
         try {
-            Optional<User> userOptional = userRepository.findByEmail(resetRequest.getEmail());
-            
-            if (!userOptional.isPresent()) {
-                return new AuthResponse(false, "Email not found!");
+            String resetToken = resetRequest.getResetToken();
+            if (resetToken == null || resetToken.trim().isEmpty()) {
+                return new AuthResponse(false, "Invalid reset token!");
             }
             
-            User user = userOptional.get();
+            // Look the user up by the token digest (indexed), then re-check it in constant time
+            Optional<User> userOptional = userRepository.findByResetToken(opaqueTokenUtil.digest(resetToken));
             
-            // Verify reset token
-            if (user.getResetToken() == null || !user.getResetToken().equals(resetRequest.getResetToken())) {
+            if (!userOptional.isPresent()
+                    || !opaqueTokenUtil.matches(resetToken, userOptional.get().getResetToken())
+                    || !userOptional.get().getEmail().equalsIgnoreCase(String.valueOf(resetRequest.getEmail()).trim())) {
                 return new AuthResponse(false, "Invalid reset token!");
             }
             
+            User user = userOptional.get();
+            
             // Check if token expired
             if (user.getResetTokenExpiry() == null || user.getResetTokenExpiry().isBefore(LocalDateTime.now())) {
                 return new AuthResponse(false, "Reset token has expired!");
             }
             
             // Update password
-            user.setPassword(passwordEncoder.encode(resetRequest.getNewPassword()));
+            user.setPassword(passwordHashingService.encode(resetRequest.getNewPassword()));
             user.setResetToken(null);
             user.setResetTokenExpiry(null);
             
             userRepository.save(user);
+            userCache.invalidate(user);
+            
+            // Sign out every existing session
+            endAllSessions(user);
+            authAuditLog.record(AuditEvent.Type.PASSWORD_RESET, user.getUsername(), null);
             
             return new AuthResponse(true, "Password reset successful!");
             
+        } catch (CapacityExceededException e) {
+            throw e;
         } catch (Exception e) {
             return new AuthResponse(false, "Password reset failed: " + e.getMessage());
         }
     }
     
+    // Refresh Token - rotate the refresh token and issue a new access token (no password hash)
+    @Transactional
+    public AuthResponse refreshToken(String refreshToken) {
+        try {
+            if (refreshToken == null || refreshToken.trim().isEmpty()) {
+                return new AuthResponse(false, "Invalid refresh token!");
+            }
+            
+            Optional<RefreshToken> tokenOptional = refreshTokenService.findForUpdate(refreshToken);
+            
+            if (!tokenOptional.isPresent()) {
+                return new AuthResponse(false, "Invalid refresh token!");
+            }
+            
+            RefreshToken current = tokenOptional.get();
+            LocalDateTime now = LocalDateTime.now();
+            Optional<User> userOptional = userCache.findById(current.getUserId());
+            
+            // A rotated token presented again means it was copied - end every session of the user -
+            // unless it was rotated moments ago by a concurrent refresh of the same client (two tabs)
+            boolean concurrentRefresh = refreshTokenService.isWithinReuseGrace(current, now);
+            if (current.getRevokedAt() != null && !concurrentRefresh) {
+                userOptional.ifPresent(user -> {
+                    endAllSessions(user);
+                    authAuditLog.record(AuditEvent.Type.REFRESH_TOKEN_REUSE, user.getUsername(), null);
+                });
+                return new AuthResponse(false, "Refresh token has been revoked. Please log in again.");
+            }
+            
+            if (current.getExpiresAt().isBefore(now)) {
+                return new AuthResponse(false, "Refresh token has expired!");
+            }
+            
+            if (!concurrentRefresh) {
+                current.setRevokedAt(now);
+            }
+            
+            if (!userOptional.isPresent() || !userOptional.get().getIsActive()) {
+                return new AuthResponse(false, "Account is deactivated. Contact administrator.");
+            }
+            
+            // The late caller gets its own pair; the one issued by the rotation stays valid
+            if (!concurrentRefresh) {
+                current.setRotatedAt(now);
+            }
+            User user = userOptional.get();
+            String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
+            String newRefreshToken = refreshTokenService.issue(user.getId());
+            
+            return new AuthResponse(true, "Token refreshed!", token, newRefreshToken, new UserDTO(user));
+            
+        } catch (Exception e) {
+            return new AuthResponse(false, "Token refresh failed: " + e.getMessage());
+        }
+    }
+    
+    // Logout - revoke the refresh token and, if given, the access token
+    @Transactional
+    public AuthResponse logout(String refreshToken, String accessToken) {
+        try {
+            if (refreshToken != null && !refreshToken.trim().isEmpty()) {
+                refreshTokenService.find(refreshToken)
+                        .filter(token -> token.getRevokedAt() == null)
+                        .ifPresent(token -> token.setRevokedAt(LocalDateTime.now()));
+            }
+            
+            if (accessToken != null) {
+                try {
+                    Claims claims = jwtUtil.extractAllClaims(accessToken);
+                    tokenRevocationService.revokeToken(claims);
+                    authAuditLog.record(AuditEvent.Type.LOGOUT, claims.getSubject(), null);
+                } catch (JwtException | IllegalArgumentException e) {
+                    // Already expired or invalid - nothing to revoke
+                }
+            }
+            
+            return new AuthResponse(true, "Logged out successfully!");
+            
+        } catch (Exception e) {
+            return new AuthResponse(false, "Logout failed: " + e.getMessage());
+        }
+    }
+    
+    // Revoke all refresh tokens and every access token issued so far
+    private void endAllSessions(User user) {
+        refreshTokenService.revokeAll(user.getId());
+        tokenRevocationService.revokeUser(user.getUsername());
+    }
+    
     // Get all users (Admin only)
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(UserDTO::new)
-                .collect(Collectors.toList());
+        return userRepository.findAllUserDtos();
+    }
+    
+    // Get one keyset page of users ordered by id (Admin only)
+    @Transactional(readOnly = true)
+    public UserPage getUsersPage(Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        List<UserDTO> users = userRepository.findUserDtosAfter(afterId != null ? afterId : 0L, PageRequest.of(0, pageSize));
+        Long nextAfterId = users.size() == pageSize ? users.get(users.size() - 1).getId() : null;
+        return new UserPage(users, nextAfterId);
+    }
+    
+    // Stream all users as NDJSON straight from a DB cursor (Admin only)
+    @Transactional(readOnly = true)
+    public void streamAllUsers(OutputStream out) throws IOException {
+        try (Stream<UserDTO> users = userRepository.streamAllUserDtos()) {
+            Iterator<UserDTO> it = users.iterator();
+            int written = 0;
+            while (it.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(it.next()));
+                out.write('\n');
+                if (++written % STREAM_FLUSH_ROWS == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
     }
     
     // Get user by ID
+    @Transactional(readOnly = true)
     public Optional<UserDTO> getUserById(Long id) {
-        return userRepository.findById(id).map(UserDTO::new);
+        return userCache.findById(id).map(UserDTO::new);
     }
     
     // Delete user (Admin only)
     @Transactional
     public AuthResponse deleteUser(Long id) {
         try {
-            if (!userRepository.existsById(id)) {
+            Optional<User> userOptional = userRepository.findById(id);
+            
+            if (!userOptional.isPresent()) {
                 return new AuthResponse(false, "User not found!");
             }
             
+            refreshTokenService.deleteAll(id);
             userRepository.deleteById(id);
+            userCache.invalidate(userOptional.get());
+            userDirectoryVersion.markChanged();
+            userSearchService.userDeleted(id);
+            tokenRevocationService.revokeUser(userOptional.get().getUsername());
+            authAuditLog.record(AuditEvent.Type.USER_DELETED, userOptional.get().getUsername(), null);
             return new AuthResponse(true, "User deleted successfully!");
             
         } catch (Exception e) {
@@ -217,6 +473,11 @@ public class AuthService {
             User user = userOptional.get();
             user.setIsActive(false);
             userRepository.save(user);
+            userCache.invalidate(user);
+            userDirectoryVersion.markChanged();
+            userSearchService.userDeactivated(user.getId());
+            endAllSessions(user);
+            authAuditLog.record(AuditEvent.Type.USER_DEACTIVATED, user.getUsername(), null);
             
             return new AuthResponse(true, "User deactivated successfully!");
             
@@ -0,0 +1,355 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.exception.CapacityExceededException;
+import com.inventory.model.AuditEvent;
+import com.inventory.model.BulkUserResult;
+import com.inventory.model.EmailOutbox;
+import com.inventory.model.SignupRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk user provisioning from a streamed CSV or JSON-lines body.
+ * Rows are processed in chunks: passwords are hashed in parallel on the hashing
+ * pool, users and their welcome emails are inserted with JDBC batches (IDENTITY
+ * ids rule out Hibernate insert batching), and one NDJSON result is written per row.
+ * Each created user gets a SIGNUP audit event with the admin as actor.
+ */
+@Service
+public class BulkUserProvisioningService {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, email, password, full_name, role, is_active, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO email_outbox (email_type, recipient, recipient_name, payload, status, attempts, next_attempt_at, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    // Roles the application grants; anything else would create an account no endpoint recognises
+    private static final Set<String> ROLES = new LinkedHashSet<>(Arrays.asList("ADMIN", "MANAGER", "EMPLOYEE"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReadYourWritesGuard readYourWritesGuard;
+
+    @Autowired
+    private UserDirectoryVersion userDirectoryVersion;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private AuthAuditLog authAuditLog;
+
+    @Value("${app.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.bulk.max-rows:100000}")
+    private int maxRows;
+
+    /**
+     * Provision users from the reader and stream per-row results, then a summary line
+     */
+    public void provision(BufferedReader reader, boolean csv, OutputStream out) throws IOException {
+        Job job = new Job(out);
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        String[] header = null;
+        int rowNumber = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (csv && header == null) {
+                header = parseCsvLine(line);
+                for (int i = 0; i < header.length; i++) {
+                    header[i] = header[i].trim().replace("_", "").toLowerCase(Locale.ROOT);
+                }
+                continue;
+            }
+            rowNumber++;
+            if (rowNumber > maxRows) {
+                job.fail(rowNumber, null, "Row limit of " + maxRows + " exceeded, remaining rows ignored");
+                break;
+            }
+
+            SignupRequest request;
+            try {
+                request = csv ? fromCsv(header, parseCsvLine(line)) : objectMapper.readValue(line, SignupRequest.class);
+            } catch (Exception e) {
+                job.fail(rowNumber, null, "Malformed row: " + e.getMessage());
+                continue;
+            }
+            chunk.add(new PendingRow(rowNumber, request));
+            if (chunk.size() >= chunkSize) {
+                processChunk(chunk, job);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, job);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("summary", true);
+        summary.put("created", job.created);
+        summary.put("failed", job.failed);
+        job.write(summary);
+        out.flush();
+    }
+
+    private void processChunk(List<PendingRow> chunk, Job job) throws IOException {
+        List<PendingRow> accepted = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            SignupRequest request = row.request;
+            if (isBlank(request.getUsername()) || isBlank(request.getEmail())
+                    || isBlank(request.getPassword()) || isBlank(request.getFullName())) {
+                job.fail(row.number, request.getUsername(), "Missing required fields");
+            } else if (request.getRole() != null && !ROLES.contains(request.getRole().toUpperCase(Locale.ROOT))) {
+                job.fail(row.number, request.getUsername(), "Unknown role " + request.getRole() + ", expected one of " + ROLES);
+            } else if (!job.usernames.add(request.getUsername())) {
+                job.fail(row.number, request.getUsername(), "Username appears more than once in this upload");
+            } else if (!job.emails.add(request.getEmail())) {
+                job.fail(row.number, request.getUsername(), "Email appears more than once in this upload");
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        // One query for the whole chunk instead of two exists-checks per row
+        Set<String> existing = findExisting(accepted);
+        List<PendingRow> toInsert = new ArrayList<>(accepted.size());
+        for (PendingRow row : accepted) {
+            if (existing.contains("u:" + row.request.getUsername())) {
+                job.fail(row.number, row.request.getUsername(), "Username already exists!");
+            } else if (existing.contains("e:" + row.request.getEmail())) {
+                job.fail(row.number, row.request.getUsername(), "Email already exists!");
+            } else {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            job.out.flush();
+            return;
+        }
+
+        List<String> rawPasswords = new ArrayList<>(toInsert.size());
+        for (PendingRow row : toInsert) {
+            rawPasswords.add(row.request.getPassword());
+        }
+        List<String> hashes;
+        try {
+            hashes = passwordHashingService.encodeAll(rawPasswords);
+        } catch (CapacityExceededException e) {
+            for (PendingRow row : toInsert) {
+                job.fail(row.number, row.request.getUsername(), e.getMessage());
+            }
+            job.out.flush();
+            return;
+        }
+
+        try {
+            insertBatch(toInsert, hashes);
+            for (PendingRow row : toInsert) {
+                readYourWritesGuard.recordWrite(null, row.request.getUsername(), row.request.getEmail());
+                job.succeed(row.number, row.request.getUsername());
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A row the database rejects (a duplicate from a concurrent signup, a value too long for
+            // its column) fails the whole batch - retry row by row to find it
+            for (int i = 0; i < toInsert.size(); i++) {
+                PendingRow row = toInsert.get(i);
+                try {
+                    insertBatch(Collections.singletonList(row), Collections.singletonList(hashes.get(i)));
+                    readYourWritesGuard.recordWrite(null, row.request.getUsername(), row.request.getEmail());
+                    job.succeed(row.number, row.request.getUsername());
+                } catch (DuplicateKeyException rowError) {
+                    job.fail(row.number, row.request.getUsername(), "Username or email already exists!");
+                } catch (DataIntegrityViolationException rowError) {
+                    job.fail(row.number, row.request.getUsername(), "Insert failed: " + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        } catch (DataAccessException e) {
+            for (PendingRow row : toInsert) {
+                job.fail(row.number, row.request.getUsername(), "Insert failed: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+        job.out.flush();
+    }
+
+    // Users and their queued welcome emails commit together
+    private void insertBatch(List<PendingRow> rows, List<String> hashes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> users = new ArrayList<>(rows.size());
+        List<Object[]> emails = new ArrayList<>(rows.size());
+        List<String> usernames = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            SignupRequest request = rows.get(i).request;
+            String role = request.getRole() != null ? request.getRole().toUpperCase(Locale.ROOT) : "EMPLOYEE";
+            users.add(new Object[]{request.getUsername(), request.getEmail(), hashes.get(i),
+                    request.getFullName(), role, true, now, now});
+            emails.add(new Object[]{EmailOutbox.TYPE_WELCOME, request.getEmail(), request.getFullName(),
+                    request.getUsername(), EmailOutbox.STATUS_PENDING, 0, now, now});
+            usernames.add(request.getUsername());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER_SQL, users);
+            jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, emails);
+            userDirectoryVersion.markChanged();
+            userSearchService.usersInserted(usernames);
+            for (String username : usernames) {
+                authAuditLog.record(AuditEvent.Type.SIGNUP, username, "bulk provisioning");
+            }
+        });
+    }
+
+    // Returns "u:<username>" / "e:<email>" keys already taken in the users table
+    private Set<String> findExisting(List<PendingRow> rows) {
+        Set<String> existing = new HashSet<>();
+        if (rows.isEmpty()) {
+            return existing;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(rows.size(), "?"));
+        Object[] args = new Object[rows.size() * 2];
+        for (int i = 0; i < rows.size(); i++) {
+            args[i] = rows.get(i).request.getUsername();
+            args[rows.size() + i] = rows.get(i).request.getEmail();
+        }
+        jdbcTemplate.query("SELECT username, email FROM users WHERE username IN (" + placeholders
+                        + ") OR email IN (" + placeholders + ")",
+                rs -> {
+                    existing.add("u:" + rs.getString(1));
+                    existing.add("e:" + rs.getString(2));
+                },
+                args);
+        return existing;
+    }
+
+    private SignupRequest fromCsv(String[] header, String[] values) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV header row is missing");
+        }
+        SignupRequest request = new SignupRequest();
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            String value = values[i].trim();
+            switch (header[i]) {
+                case "username": request.setUsername(value); break;
+                case "email": request.setEmail(value); break;
+                case "password": request.setPassword(value); break;
+                case "fullname": request.setFullName(value); break;
+                case "role": request.setRole(value.isEmpty() ? null : value); break;
+                default: break;
+            }
+        }
+        return request;
+    }
+
+    // Minimal RFC 4180 line parser: commas, double-quoted fields and "" escapes
+    private static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static final class PendingRow {
+        private final int number;
+        private final SignupRequest request;
+
+        private PendingRow(int number, SignupRequest request) {
+            this.number = number;
+            this.request = request;
+        }
+    }
+
+    // Per-request state: result stream, counters and the keys seen so far
+    private final class Job {
+        private final OutputStream out;
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private int created;
+        private int failed;
+
+        private Job(OutputStream out) {
+            this.out = out;
+        }
+
+        void succeed(int row, String username) throws IOException {
+            created++;
+            write(new BulkUserResult(row, username, true, "User created"));
+        }
+
+        void fail(int row, String username, String message) throws IOException {
+            failed++;
+            write(new BulkUserResult(row, username, false, message));
+        }
+
+        void write(Object value) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write(NEWLINE);
+        }
+    }
+}
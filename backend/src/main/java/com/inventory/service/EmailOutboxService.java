@@ -0,0 +1,308 @@
+package com.inventory.service;
+
+import com.inventory.model.EmailOutbox;
+import com.inventory.model.User;
+import com.inventory.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for outgoing emails.
+ * Request threads only insert a row in their own transaction; a background
+ * dispatcher drains due rows in batches and retries failures with backoff.
+ * A batch is claimed (SENDING, leased until next_attempt_at) in one short
+ * transaction, sent with no transaction or connection held, and its outcome
+ * written in another. Rows whose dispatcher died are reclaimed once the lease
+ * runs out; delivered rows are purged after a retention period.
+ */
+@Service
+public class EmailOutboxService {
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.max-per-run:500}")
+    private int maxPerRun;
+
+    @Value("${app.email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.initial-backoff-ms:5000}")
+    private long initialBackoffMs;
+
+    @Value("${app.email.outbox.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    // Longer than sending a whole batch can take, or another dispatcher sends it again
+    @Value("${app.email.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${app.email.outbox.sent-retention-hours:168}")
+    private long sentRetentionHours;
+
+    @Value("${app.email.outbox.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    private static final List<String> CLAIMABLE = Arrays.asList(EmailOutbox.STATUS_PENDING, EmailOutbox.STATUS_SENDING);
+
+    private static final String PURGE_SENT_SQL = "DELETE FROM email_outbox WHERE status = ? AND sent_at < ? LIMIT ?";
+
+    private final AtomicLong queueDepth = new AtomicLong();
+
+    private Counter sentCounter;
+    private Counter retryCounter;
+    private Counter failedCounter;
+    private Counter purgedCounter;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("email.outbox.depth", queueDepth, AtomicLong::get)
+                .description("Pending emails waiting in the outbox")
+                .register(meterRegistry);
+        sentCounter = meterRegistry.counter("email.outbox.sent");
+        retryCounter = meterRegistry.counter("email.outbox.retried");
+        failedCounter = meterRegistry.counter("email.outbox.failed");
+        purgedCounter = meterRegistry.counter("email.outbox.purged");
+    }
+
+    /**
+     * Queue welcome email in the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void queueWelcomeEmail(User user) {
+        outboxRepository.save(new EmailOutbox(EmailOutbox.TYPE_WELCOME,
+                user.getEmail(), user.getFullName(), user.getUsername()));
+    }
+
+    /**
+     * Queue password reset email in the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void queuePasswordResetEmail(User user, String resetToken) {
+        outboxRepository.save(new EmailOutbox(EmailOutbox.TYPE_PASSWORD_RESET,
+                user.getEmail(), user.getFullName(), resetToken));
+    }
+
+    public long getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    // Drain due emails, one SMTP connection per batch
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:2000}")
+    public void dispatchPending() {
+        int dispatched = 0;
+        try {
+            while (dispatched < maxPerRun) {
+                List<EmailOutbox> batch = transactionTemplate.execute(status -> claimBatch());
+                if (batch == null || batch.isEmpty()) {
+                    break;
+                }
+                dispatchBatch(batch);
+                dispatched += batch.size();
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Email outbox dispatch failed: " + e.getMessage());
+        } finally {
+            queueDepth.set(outboxRepository.countByStatus(EmailOutbox.STATUS_PENDING));
+        }
+    }
+
+    // Delete delivered rows past the retention period in bounded batches, each committed on its own
+    @Scheduled(fixedDelayString = "${app.email.outbox.purge-interval-ms:3600000}",
+            initialDelayString = "${app.email.outbox.purge-interval-ms:3600000}")
+    public int purgeSent() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusHours(sentRetentionHours));
+        int purged = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(PURGE_SENT_SQL, EmailOutbox.STATUS_SENT, cutoff, purgeBatchSize);
+            purged += batch;
+        } while (batch == purgeBatchSize);
+        purgedCounter.increment(purged);
+        return purged;
+    }
+
+    /**
+     * Lock due rows with SKIP LOCKED and lease them to this dispatcher. Counting
+     * the attempt here lets the outcome write tell whether the row was reclaimed
+     * by someone else meanwhile.
+     */
+    private List<EmailOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = outboxRepository.findDueBatch(CLAIMABLE, now, PageRequest.of(0, batchSize));
+        LocalDateTime leaseExpiry = now.plusNanos(leaseMs * 1_000_000L);
+        for (EmailOutbox entry : batch) {
+            entry.setStatus(EmailOutbox.STATUS_SENDING);
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setNextAttemptAt(leaseExpiry);
+        }
+        return batch;
+    }
+
+    // Runs outside any transaction: the claimed rows are detached copies
+    private void dispatchBatch(List<EmailOutbox> batch) {
+        Map<Long, Exception> outcomes = new HashMap<>();
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>();
+        for (EmailOutbox entry : batch) {
+            try {
+                messages.put(buildMessage(entry), entry);
+            } catch (MessagingException e) {
+                // A message that cannot be built will not succeed on retry either
+                outcomes.put(entry.getId(), new PermanentFailure(e));
+            }
+        }
+
+        Map<Object, Exception> failures = Collections.emptyMap();
+        Exception batchFailure = null;
+        try {
+            emailService.sendAll(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+
+        int sent = 0;
+        for (Map.Entry<MimeMessage, EmailOutbox> message : messages.entrySet()) {
+            Exception failure = batchFailure != null ? batchFailure : failures.get(message.getKey());
+            outcomes.put(message.getValue().getId(), failure);
+            if (failure == null) {
+                sent++;
+            }
+        }
+
+        Integer recorded = transactionTemplate.execute(status -> recordOutcomes(batch, outcomes));
+        System.out.println("✅ Email outbox batch dispatched: " + sent + "/" + batch.size() + " sent");
+        if (recorded != null && recorded < batch.size()) {
+            System.err.println("⚠️ " + (batch.size() - recorded) + " outbox emails were reclaimed after their lease ran out");
+        }
+    }
+
+    // Applies each outcome unless the row's lease ran out and another dispatcher claimed it since
+    private int recordOutcomes(List<EmailOutbox> claimed, Map<Long, Exception> outcomes) {
+        Map<Long, Integer> claimedAttempts = claimed.stream()
+                .collect(Collectors.toMap(EmailOutbox::getId, EmailOutbox::getAttempts));
+        List<EmailOutbox> current = outboxRepository.findClaimed(claimedAttempts.keySet(), EmailOutbox.STATUS_SENDING);
+        int recorded = 0;
+        for (EmailOutbox entry : current) {
+            if (!entry.getAttempts().equals(claimedAttempts.get(entry.getId()))) {
+                continue;
+            }
+            Exception failure = outcomes.get(entry.getId());
+            if (failure == null) {
+                markSent(entry);
+            } else if (failure instanceof PermanentFailure) {
+                markFailed(entry, (Exception) failure.getCause());
+            } else {
+                scheduleRetry(entry, failure);
+            }
+            recorded++;
+        }
+        return recorded;
+    }
+
+    private MimeMessage buildMessage(EmailOutbox entry) throws MessagingException {
+        switch (entry.getEmailType()) {
+            case EmailOutbox.TYPE_WELCOME:
+                return emailService.createWelcomeMessage(entry.getRecipient(), entry.getRecipientName(), entry.getPayload());
+            case EmailOutbox.TYPE_PASSWORD_RESET:
+                return emailService.createPasswordResetMessage(entry.getRecipient(), entry.getPayload(), entry.getRecipientName());
+            default:
+                throw new MessagingException("Unknown email type: " + entry.getEmailType());
+        }
+    }
+
+    private void markSent(EmailOutbox entry) {
+        entry.setStatus(EmailOutbox.STATUS_SENT);
+        entry.setSentAt(LocalDateTime.now());
+        entry.setLastError(null);
+        // Reset tokens should not outlive delivery
+        if (EmailOutbox.TYPE_PASSWORD_RESET.equals(entry.getEmailType())) {
+            entry.setPayload(null);
+        }
+        sentCounter.increment();
+    }
+
+    // The attempt was already counted when the row was claimed
+    private void scheduleRetry(EmailOutbox entry, Exception failure) {
+        int attempts = entry.getAttempts();
+        if (attempts >= maxAttempts) {
+            markFailed(entry, failure);
+            return;
+        }
+        long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+        entry.setStatus(EmailOutbox.STATUS_PENDING);
+        entry.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs * 1_000_000L));
+        entry.setLastError(truncate(failure.getMessage()));
+        retryCounter.increment();
+        System.err.println("⚠️ Email to " + entry.getRecipient() + " failed (attempt " + attempts + "), retrying in " + backoffMs + " ms");
+    }
+
+    private void markFailed(EmailOutbox entry, Exception failure) {
+        entry.setStatus(EmailOutbox.STATUS_FAILED);
+        entry.setLastError(truncate(failure.getMessage()));
+        failedCounter.increment();
+        System.err.println("❌ Giving up on email to " + entry.getRecipient() + ": " + failure.getMessage());
+    }
+
+    // Marks a build failure, which is not retried
+    private static final class PermanentFailure extends Exception {
+        private PermanentFailure(MessagingException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= 500) {
+            return message;
+        }
+        return message.substring(0, 500);
+    }
+}
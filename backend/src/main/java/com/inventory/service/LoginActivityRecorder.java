@@ -0,0 +1,180 @@
+package com.inventory.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for login side effects.
+ * lastLogin timestamps and password rehashes are coalesced per user id in memory
+ * and flushed periodically (and on shutdown) as batched JDBC updates, keeping
+ * the login transaction itself read-only. Only the scheduler flushes. The buffer
+ * holds at most max-pending users: while it is full (e.g. the database is down)
+ * logins of users already in it still coalesce, others are dropped and counted.
+ */
+@Service
+public class LoginActivityRecorder {
+
+    // Leaves updated_at alone: a login is not a profile change
+    private static final String UPDATE_LAST_LOGIN_SQL =
+            "UPDATE users SET last_login = ?, updated_at = updated_at WHERE id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    // Only replaces the hash the login verified, so a concurrent password reset wins; a rehash is
+    // not a profile change either, so updated_at stays put
+    private static final String UPDATE_PASSWORD_SQL =
+            "UPDATE users SET password = ?, updated_at = updated_at WHERE id = ? AND password = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.login.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.login.write-behind.max-pending:50000}")
+    private int maxPending;
+
+    private final Map<Long, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+    private final Map<Long, PasswordRehash> pendingRehashes = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Counter droppedLogins;
+    private Counter droppedRehashes;
+
+    @PostConstruct
+    public void registerMetrics() {
+        droppedLogins = Counter.builder("login.write-behind.dropped").tag("kind", "last-login").register(meterRegistry);
+        droppedRehashes = Counter.builder("login.write-behind.dropped").tag("kind", "rehash").register(meterRegistry);
+        Gauge.builder("login.write-behind.pending", this, LoginActivityRecorder::getPendingCount).register(meterRegistry);
+    }
+
+    /**
+     * Record a successful login; only the latest timestamp per user is kept.
+     * Never flushes or blocks, so it is safe on request threads and event loops.
+     */
+    public void recordLogin(Long userId, LocalDateTime loginTime) {
+        // The size check is racy by a few entries, which is fine for a memory bound
+        if (pendingLogins.size() >= maxPending && !pendingLogins.containsKey(userId)) {
+            droppedLogins.increment();
+            return;
+        }
+        pendingLogins.merge(userId, loginTime, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    // Record a rehashed password for a hash that was just verified; a dropped one is redone on the next login
+    public void recordRehash(Long userId, String verifiedHash, String newHash) {
+        if (pendingRehashes.size() >= maxPending && !pendingRehashes.containsKey(userId)) {
+            droppedRehashes.increment();
+            return;
+        }
+        pendingRehashes.put(userId, new PasswordRehash(verifiedHash, newHash));
+    }
+
+    public int getPendingCount() {
+        return pendingLogins.size() + pendingRehashes.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.login.write-behind.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushLogins();
+            flushRehashes();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Bounded to one buffer's worth per call so steady login traffic cannot keep a flush running
+    private void flushLogins() {
+        int budget = maxPending;
+        while (!pendingLogins.isEmpty() && budget > 0) {
+            Map<Long, LocalDateTime> drained = new HashMap<>();
+            Iterator<Long> ids = pendingLogins.keySet().iterator();
+            while (ids.hasNext() && drained.size() < batchSize) {
+                Long id = ids.next();
+                LocalDateTime loginTime = pendingLogins.remove(id);
+                if (loginTime != null) {
+                    drained.put(id, loginTime);
+                }
+            }
+
+            budget -= Math.max(1, drained.size());
+
+            List<Object[]> batch = new ArrayList<>(drained.size());
+            for (Map.Entry<Long, LocalDateTime> entry : drained.entrySet()) {
+                Timestamp loginTime = Timestamp.valueOf(entry.getValue());
+                batch.add(new Object[]{loginTime, entry.getKey(), loginTime});
+            }
+            try {
+                // Not a directory change: the users listing leaves lastLogin out, so its ETag stays put
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, batch));
+            } catch (Exception e) {
+                // Put the timestamps back for the next run, as far as the bound allows, rather than losing them
+                drained.forEach(this::recordLogin);
+                System.err.println("❌ Failed to flush " + drained.size() + " last-login updates: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void flushRehashes() {
+        if (pendingRehashes.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>();
+        Iterator<Long> ids = pendingRehashes.keySet().iterator();
+        while (ids.hasNext()) {
+            Long id = ids.next();
+            PasswordRehash rehash = pendingRehashes.remove(id);
+            if (rehash != null) {
+                batch.add(new Object[]{rehash.newHash, id, rehash.verifiedHash});
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_PASSWORD_SQL, batch));
+        } catch (Exception e) {
+            // Dropped rehashes are redone on the user's next login
+            System.err.println("⚠️ Failed to flush " + batch.size() + " password rehashes: " + e.getMessage());
+        }
+    }
+
+    private static final class PasswordRehash {
+        private final String verifiedHash;
+        private final String newHash;
+
+        private PasswordRehash(String verifiedHash, String newHash) {
+            this.verifiedHash = verifiedHash;
+            this.newHash = newHash;
+        }
+    }
+}
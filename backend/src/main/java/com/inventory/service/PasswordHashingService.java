@@ -0,0 +1,300 @@
+package com.inventory.service;
+
+import com.inventory.exception.CapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing on a bounded, core-sized worker pool.
+ * When the wait queue is full callers fail fast with CapacityExceededException
+ * instead of piling more CPU-bound work onto request threads.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final String BCRYPT = "bcrypt";
+    private static final String PBKDF2 = "pbkdf2";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.password.hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.password.hashing.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${app.password.hashing.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    // Encoder id written as the {id} prefix of new hashes
+    @Value("${app.password.hashing.algorithm:bcrypt}")
+    private String algorithm;
+
+    // Fixed BCrypt cost; 0 calibrates against target-ms at startup
+    @Value("${app.password.hashing.bcrypt-strength:0}")
+    private int configuredStrength;
+
+    @Value("${app.password.hashing.target-ms:250}")
+    private long targetMs;
+
+    @Value("${app.password.hashing.min-strength:10}")
+    private int minStrength;
+
+    @Value("${app.password.hashing.max-strength:14}")
+    private int maxStrength;
+
+    private PasswordEncoder passwordEncoder;
+
+    private int bcryptStrength;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer queueWaitTimer;
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void start() {
+        bcryptStrength = configuredStrength > 0 ? configuredStrength : calibrateBcryptStrength();
+        passwordEncoder = createEncoder(bcryptStrength);
+        System.out.println("🔐 Password hashing: " + algorithm + ", bcrypt strength " + bcryptStrength);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.prestartAllCoreThreads();
+
+        queueWaitTimer = Timer.builder("password.hash.queue.wait")
+                .description("Time hashing requests wait for a worker")
+                .register(meterRegistry);
+        encodeTimer = Timer.builder("password.hash.time").tag("operation", "encode").register(meterRegistry);
+        matchesTimer = Timer.builder("password.hash.time").tag("operation", "matches").register(meterRegistry);
+        rejectedCounter = meterRegistry.counter("password.hash.rejected");
+        Gauge.builder("password.hash.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    // Hash a raw password
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    // Verify a raw password against a stored hash
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Non-blocking variants for event-loop callers: the work runs on the same bounded
+     * pool, and the future fails with CapacityExceededException when the queue is
+     * full (thrown immediately) or the hash is not done within the timeout.
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return submitAsync(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+        return submitAsync(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hash many passwords for bulk jobs. At most one task per worker is in flight
+     * at a time, so interactive logins still find room in the queue.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int window = executor.getCorePoolSize();
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (int i = 0; i < rawPasswords.size(); i++) {
+            if (i >= window) {
+                await(futures.get(i - window));
+            }
+            CharSequence rawPassword = rawPasswords.get(i);
+            futures.add(enqueue(encodeTimer, () -> passwordEncoder.encode(rawPassword)));
+        }
+        List<String> hashes = new ArrayList<>(futures.size());
+        for (Future<String> future : futures) {
+            hashes.add(await(future));
+        }
+        return hashes;
+    }
+
+    /**
+     * True when a stored hash uses another algorithm, has no {id} prefix, or was
+     * produced with a lower BCrypt cost than the current one (which is never below
+     * min-strength when calibrated). Higher costs are kept: instances calibrate
+     * independently, and a slower one must not undo a faster one's upgrade.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        String prefix = "{" + algorithm + "}";
+        if (!encodedPassword.startsWith(prefix)) {
+            return true;
+        }
+        if (BCRYPT.equals(algorithm)) {
+            return bcryptCost(encodedPassword.substring(prefix.length())) < bcryptStrength;
+        }
+        return false;
+    }
+
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+
+    // Legacy hashes without an {id} prefix are BCrypt, as written before the delegating encoder
+    private PasswordEncoder createEncoder(int strength) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2, new Pbkdf2PasswordEncoder());
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unknown password hashing algorithm: " + algorithm);
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    // Each BCrypt cost step doubles the work, so time one low-cost hash and extrapolate
+    private int calibrateBcryptStrength() {
+        int probeStrength = 8;
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(probeStrength);
+        String probeHash = probe.encode("calibration");
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            probe.matches("calibration", probeHash);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMs);
+        int strength = probeStrength;
+        while (strength < maxStrength && (bestNanos << (strength + 1 - probeStrength)) <= targetNanos) {
+            strength++;
+        }
+        return Math.max(minStrength, Math.min(maxStrength, strength));
+    }
+
+    // "$2a$10$..." -> 10
+    private static int bcryptCost(String hash) {
+        if (hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private <T> T submit(Timer hashTimer, Callable<T> work) {
+        return await(enqueue(hashTimer, work));
+    }
+
+    private <T> CompletableFuture<T> submitAsync(Timer hashTimer, Callable<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        enqueue(hashTimer, () -> {
+            try {
+                T value = work.call();
+                result.complete(value);
+                return value;
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+                throw e;
+            }
+        });
+        return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).handle((value, error) -> {
+            if (error == null) {
+                return value;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+                rejectedCounter.increment();
+                throw new CompletionException(new CapacityExceededException("Server is busy. Please try again shortly.", retryAfterSeconds));
+            }
+            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+        });
+    }
+
+    private <T> Future<T> enqueue(Timer hashTimer, Callable<T> work) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return work.call();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new CapacityExceededException("Server is busy. Please try again shortly.", retryAfterSeconds);
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new CapacityExceededException("Server is busy. Please try again shortly.", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
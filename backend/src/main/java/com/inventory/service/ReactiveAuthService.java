@@ -0,0 +1,192 @@
+package com.inventory.service;
+
+import com.inventory.exception.CapacityExceededException;
+import com.inventory.model.AuditEvent;
+import com.inventory.model.AuthResponse;
+import com.inventory.model.LoginRequest;
+import com.inventory.model.SignupRequest;
+import com.inventory.model.User;
+import com.inventory.model.UserDTO;
+import com.inventory.repository.ReactiveAuthRepository;
+import com.inventory.util.JwtUtil;
+import com.inventory.util.OpaqueTokenUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking signup and login for the reactive stack, with the same responses,
+ * metrics and side effects as AuthService. Nothing here blocks the event loop:
+ * rows come from the near-cache or R2DBC, BCrypt runs on the bounded hashing
+ * pool and last-login writes go to the write-behind buffer.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthService {
+
+    @Autowired
+    private ReactiveAuthRepository reactiveAuthRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginActivityRecorder loginActivityRecorder;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private OpaqueTokenUtil opaqueTokenUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AuthAuditLog authAuditLog;
+
+    @Autowired
+    private UserDirectoryVersion userDirectoryVersion;
+
+    @Value("${app.jwt.refresh-token-ttl-days:14}")
+    private long refreshTokenTtlDays;
+
+    private Counter loginSuccess;
+    private Counter loginUnknownUser;
+    private Counter loginBadPassword;
+    private Counter loginDeactivated;
+    private Counter loginError;
+
+    @PostConstruct
+    public void registerMetrics() {
+        loginSuccess = loginCounter("success");
+        loginUnknownUser = loginCounter("unknown_user");
+        loginBadPassword = loginCounter("bad_password");
+        loginDeactivated = loginCounter("deactivated");
+        loginError = loginCounter("error");
+    }
+
+    private Counter loginCounter(String outcome) {
+        return Counter.builder("auth.login").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    // User Registration - hash off the event loop, then one transaction for the user and its welcome email
+    public Mono<AuthResponse> registerUser(SignupRequest signupRequest, String clientIp) {
+        return Mono.defer(() -> Mono.fromFuture(passwordHashingService.encodeAsync(signupRequest.getPassword())))
+                .flatMap(hash -> {
+                    // Self-signup never picks its role
+                    User user = new User(signupRequest.getUsername(), signupRequest.getEmail(), hash,
+                            signupRequest.getFullName(), "EMPLOYEE");
+                    user.setIsActive(true);
+                    return reactiveAuthRepository.insertUserWithWelcomeEmail(user);
+                })
+                .doOnNext(saved -> {
+                    userCache.invalidate(saved);
+                    userDirectoryVersion.markChanged();
+                    authAuditLog.record(AuditEvent.Type.SIGNUP, saved.getUsername(), clientIp, null);
+                })
+                .flatMap(saved -> issueRefreshToken(saved.getId())
+                        .map(refreshToken -> new AuthResponse(true, "User registered successfully!",
+                                jwtUtil.generateToken(saved.getUsername(), saved.getRole()), refreshToken, new UserDTO(saved))))
+                .onErrorResume(DataIntegrityViolationException.class, e -> reactiveAuthRepository
+                        .findDuplicateMessage(signupRequest.getUsername(), signupRequest.getEmail())
+                        .defaultIfEmpty("Registration failed: " + e.getMostSpecificCause().getMessage())
+                        .map(message -> new AuthResponse(false, message)))
+                .onErrorResume(e -> !(e instanceof CapacityExceededException),
+                        e -> Mono.just(new AuthResponse(false, "Registration failed: " + e.getMessage())));
+    }
+
+    // User Login
+    public Mono<AuthResponse> loginUser(LoginRequest loginRequest, String clientIp) {
+        return findByUsername(loginRequest.getUsername())
+                .flatMap(user -> {
+                    if (!user.getIsActive()) {
+                        loginDeactivated.increment();
+                        authAuditLog.record(AuditEvent.Type.LOGIN_FAILURE, user.getUsername(), clientIp, "deactivated");
+                        return Mono.just(new AuthResponse(false, "Account is deactivated. Contact administrator."));
+                    }
+                    return Mono.defer(() -> Mono.fromFuture(passwordHashingService.matchesAsync(loginRequest.getPassword(), user.getPassword())))
+                            .flatMap(matches -> {
+                                if (!matches) {
+                                    loginBadPassword.increment();
+                                    authAuditLog.record(AuditEvent.Type.LOGIN_FAILURE, user.getUsername(), clientIp, "bad_password");
+                                    return Mono.just(new AuthResponse(false, "Invalid username or password!"));
+                                }
+                                return rehashIfNeeded(user, loginRequest.getPassword()).then(completeLogin(user, clientIp));
+                            });
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    loginUnknownUser.increment();
+                    authAuditLog.record(AuditEvent.Type.LOGIN_FAILURE, loginRequest.getUsername(), clientIp, "unknown_user");
+                    return new AuthResponse(false, "Invalid username or password!");
+                }))
+                .doOnError(CapacityExceededException.class, e -> loginError.increment())
+                .onErrorResume(e -> !(e instanceof CapacityExceededException), e -> {
+                    loginError.increment();
+                    return Mono.just(new AuthResponse(false, "Login failed: " + e.getMessage()));
+                });
+    }
+
+    private Mono<AuthResponse> completeLogin(User user, String clientIp) {
+        return Mono.defer(() -> {
+            LocalDateTime loginTime = LocalDateTime.now();
+            user.setLastLogin(loginTime);
+            loginActivityRecorder.recordLogin(user.getId(), loginTime);
+            String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
+            return issueRefreshToken(user.getId()).map(refreshToken -> {
+                loginSuccess.increment();
+                authAuditLog.record(AuditEvent.Type.LOGIN_SUCCESS, user.getUsername(), clientIp, null);
+                return new AuthResponse(true, "Login successful!", token, refreshToken, new UserDTO(user));
+            });
+        });
+    }
+
+    // Near-cache first; a miss loads over R2DBC and fills the cache unless the user changed meanwhile
+    private Mono<User> findByUsername(String username) {
+        return Mono.defer(() -> {
+            if (username == null) {
+                return Mono.empty();
+            }
+            return userCache.peekByUsername(username)
+                    .map(Mono::just)
+                    .orElseGet(() -> {
+                        long loadGeneration = userCache.currentGeneration();
+                        return reactiveAuthRepository.findByUsername(username)
+                                .doOnNext(user -> userCache.cacheLoaded(user, loadGeneration));
+                    });
+        });
+    }
+
+    // Upgrade a stale hash while the raw password is at hand; skipped when the pool is busy
+    private Mono<Void> rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> Mono.fromFuture(passwordHashingService.encodeAsync(rawPassword)))
+                .doOnNext(newHash -> {
+                    loginActivityRecorder.recordRehash(user.getId(), user.getPassword(), newHash);
+                    userCache.updatePassword(user.getId(), user.getPassword(), newHash);
+                })
+                .onErrorResume(CapacityExceededException.class, e -> Mono.empty())
+                .then();
+    }
+
+    private Mono<String> issueRefreshToken(Long userId) {
+        return Mono.defer(() -> {
+            String token = opaqueTokenUtil.generateToken();
+            return reactiveAuthRepository.insertRefreshToken(userId, opaqueTokenUtil.digest(token),
+                    LocalDateTime.now().plusDays(refreshTokenTtlDays)).thenReturn(token);
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package com.inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes on top of replica routing. Users written in the last
+ * max-lag + lag-check-interval may not have reached the replica yet, so reads
+ * keyed by their id, username or email are pinned to the primary for that
+ * window. Without a replica configured this does nothing.
+ */
+@Service
+public class ReadYourWritesGuard {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    @Value("${app.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.max-lag-ms:1000}")
+    private long maxLagMs;
+
+    @Value("${app.datasource.replica.lag-check-interval-ms:500}")
+    private long lagCheckIntervalMs;
+
+    // Key -> time (ms) until which reads of it go to the primary
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Mark a user as just written. Marked now and again when the transaction
+     * completes, so the window starts at commit rather than at the statement.
+     */
+    public void recordWrite(Long id, String username, String email) {
+        if (replicaUrl.isEmpty()) {
+            return;
+        }
+        mark(id, username, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    mark(id, username, email);
+                }
+            });
+        }
+    }
+
+    // Run a read on the primary if the key was written recently, otherwise let routing decide
+    public <T> T read(String key, Supplier<T> reader) {
+        Long until = key != null ? recentWrites.get(key) : null;
+        if (until == null || until < System.currentTimeMillis() || Boolean.TRUE.equals(PRIMARY_FORCED.get())) {
+            return reader.get();
+        }
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return reader.get();
+        } finally {
+            PRIMARY_FORCED.remove();
+        }
+    }
+
+    public boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_FORCED.get());
+    }
+
+    public static String idKey(Long id) {
+        return id != null ? "i:" + id : null;
+    }
+
+    // Usernames and emails compare case-insensitively in MySQL
+    public static String usernameKey(String username) {
+        return username != null ? "u:" + username.toLowerCase(Locale.ROOT) : null;
+    }
+
+    public static String emailKey(String email) {
+        return email != null ? "e:" + email.toLowerCase(Locale.ROOT) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.guard-sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        recentWrites.values().removeIf(until -> until < now);
+    }
+
+    private void mark(Long id, String username, String email) {
+        long until = System.currentTimeMillis() + maxLagMs + lagCheckIntervalMs;
+        put(idKey(id), until);
+        put(usernameKey(username), until);
+        put(emailKey(email), until);
+    }
+
+    private void put(String key, long until) {
+        if (key != null) {
+            recentWrites.merge(key, until, Math::max);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.inventory.service;
+
+import com.inventory.model.RefreshToken;
+import com.inventory.repository.RefreshTokenRepository;
+import com.inventory.util.OpaqueTokenUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Long-lived refresh tokens, stored as digests and rotated on every use.
+ * Refreshing an access token costs one indexed lookup and two row writes,
+ * never a password hash. Rotated tokens are kept (revoked) until they expire
+ * so that replaying one can be detected; for a few seconds after rotation a
+ * token may still be exchanged, so that concurrent refreshes from one client
+ * are not mistaken for a replay.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM refresh_tokens WHERE expires_at < ? LIMIT ?";
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private OpaqueTokenUtil opaqueTokenUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.jwt.refresh-token-ttl-days:14}")
+    private long refreshTokenTtlDays;
+
+    @Value("${app.jwt.refresh-token-sweep.batch-size:500}")
+    private int sweepBatchSize;
+
+    @Value("${app.jwt.refresh-token-reuse-grace-seconds:10}")
+    private long reuseGraceSeconds;
+
+    // Issue a new refresh token for the user; returns the raw token for the client
+    public String issue(Long userId) {
+        String token = opaqueTokenUtil.generateToken();
+        refreshTokenRepository.save(new RefreshToken(userId, opaqueTokenUtil.digest(token),
+                LocalDateTime.now().plusDays(refreshTokenTtlDays)));
+        return token;
+    }
+
+    // Row-locked lookup for rotation; must run inside a transaction
+    public Optional<RefreshToken> findForUpdate(String token) {
+        return refreshTokenRepository.findByTokenHashForUpdate(opaqueTokenUtil.digest(token));
+    }
+
+    public Optional<RefreshToken> find(String token) {
+        return refreshTokenRepository.findByTokenHash(opaqueTokenUtil.digest(token));
+    }
+
+    // Rotated (not logged out or revoked) so recently that presenting it again is a concurrent refresh
+    public boolean isWithinReuseGrace(RefreshToken token, LocalDateTime now) {
+        return token.getRotatedAt() != null && token.getRotatedAt().isAfter(now.minusSeconds(reuseGraceSeconds));
+    }
+
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+    }
+
+    public void deleteAll(Long userId) {
+        refreshTokenRepository.deleteAllForUser(userId);
+    }
+
+    // Expired tokens (rotated or not) are deleted in bounded batches
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-token-sweep.interval-ms:3600000}",
+            initialDelayString = "${app.jwt.refresh-token-sweep.interval-ms:3600000}")
+    public int deleteExpired() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(DELETE_EXPIRED_SQL, now, sweepBatchSize);
+            deleted += batch;
+        } while (batch == sweepBatchSize);
+        return deleted;
+    }
+}
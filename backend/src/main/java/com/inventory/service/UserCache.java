@@ -0,0 +1,290 @@
+package com.inventory.service;
+
+import com.inventory.model.User;
+import com.inventory.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded, TTL near-cache of user rows indexed by id, username and email.
+ * Entries are immutable snapshots; callers get a fresh detached User each time.
+ * Any invalidation bumps a generation counter so a load that raced with a write
+ * is not cached.
+ */
+@Service
+public class UserCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReadYourWritesGuard readYourWritesGuard;
+
+    @Value("${app.user-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.user-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<Long, CachedUser> byId = new ConcurrentHashMap<>();
+    private final Map<String, Long> byUsername = new ConcurrentHashMap<>();
+    private final Map<String, Long> byEmail = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("user.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("user.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("user.cache.evictions", evictions, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("user.cache.size", byId, Map::size).register(meterRegistry);
+    }
+
+    public Optional<User> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return lookup(byId.get(id), () -> readYourWritesGuard.read(ReadYourWritesGuard.idKey(id),
+                () -> userRepository.findById(id)));
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        Long id = byUsername.get(username);
+        return lookup(id != null ? byId.get(id) : null, () -> readYourWritesGuard.read(ReadYourWritesGuard.usernameKey(username),
+                () -> userRepository.findByUsername(username)));
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Long id = byEmail.get(email);
+        return lookup(id != null ? byId.get(id) : null, () -> readYourWritesGuard.read(ReadYourWritesGuard.emailKey(email),
+                () -> userRepository.findByEmail(email)));
+    }
+
+    /**
+     * Cached entry only, never touching the database. Callers that load the row
+     * themselves (non-blocking) take currentGeneration() first and hand the
+     * result to cacheLoaded().
+     */
+    public Optional<User> peekByUsername(String username) {
+        Long id = username != null ? byUsername.get(username) : null;
+        CachedUser cached = id != null ? byId.get(id) : null;
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            hits.increment();
+            return Optional.of(cached.toUser());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    // Cache a row loaded outside this class unless an invalidation happened since the load began
+    public void cacheLoaded(User user, long loadGeneration) {
+        if (generation.get() == loadGeneration) {
+            put(new CachedUser(user, System.currentTimeMillis() + ttlSeconds * 1000));
+        }
+    }
+
+    /**
+     * A user row was written: drop it and whatever owns its keys, and send reads
+     * of it to the primary until the replica has caught up
+     */
+    public void invalidate(User user) {
+        readYourWritesGuard.recordWrite(user.getId(), user.getUsername(), user.getEmail());
+        if (user.getId() != null) {
+            invalidate(user.getId());
+        }
+        invalidateKeys(user.getUsername(), user.getEmail());
+    }
+
+    /**
+     * Drop a user now and again once the current transaction commits,
+     * so readers cannot re-cache the pre-commit row in between
+     */
+    public void invalidate(Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    // Drop whatever entries currently own these keys (used when a new user claims them)
+    public void invalidateKeys(String username, String email) {
+        Long id = username != null ? byUsername.get(username) : null;
+        if (id != null) {
+            invalidate(id);
+        }
+        id = email != null ? byEmail.get(email) : null;
+        if (id != null) {
+            invalidate(id);
+        }
+    }
+
+    /**
+     * Keep a cached credential in step with a login rehash instead of dropping it.
+     * Only replaces the hash the login verified, so a password change cached
+     * meanwhile is never overwritten with a hash of the old password.
+     */
+    public void updatePassword(Long id, String verifiedHash, String newHash) {
+        CachedUser cached = byId.get(id);
+        if (cached != null && cached.password.equals(verifiedHash)) {
+            byId.replace(id, cached, cached.withPassword(newHash));
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private Optional<User> lookup(CachedUser cached, Supplier<Optional<User>> loader) {
+        long now = System.currentTimeMillis();
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                hits.increment();
+                return Optional.of(cached.toUser());
+            }
+            evict(cached.id);
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(user -> {
+            if (generation.get() == loadGeneration) {
+                put(new CachedUser(user, now + ttlSeconds * 1000));
+            }
+        });
+        return loaded.map(user -> new CachedUser(user, 0).toUser());
+    }
+
+    private void put(CachedUser user) {
+        // While full, new rows go uncached until the sweep makes room
+        if (byId.size() >= maxEntries && !byId.containsKey(user.id)) {
+            return;
+        }
+        byId.put(user.id, user);
+        byUsername.put(user.username, user.id);
+        byEmail.put(user.email, user.id);
+    }
+
+    private void evict(Long id) {
+        generation.incrementAndGet();
+        CachedUser removed = byId.remove(id);
+        if (removed != null) {
+            byUsername.remove(removed.username, id);
+            byEmail.remove(removed.email, id);
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Drop expired entries; if the cache is still above 90% of its bound, drop
+     * arbitrary entries until it is not
+     */
+    @Scheduled(fixedDelayString = "${app.user-cache.sweep-interval-ms:1000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        int target = maxEntries - maxEntries / 10;
+        Iterator<CachedUser> it = byId.values().iterator();
+        while (it.hasNext()) {
+            CachedUser user = it.next();
+            if (user.expiresAt <= now || byId.size() > target) {
+                it.remove();
+                byUsername.remove(user.username, user.id);
+                byEmail.remove(user.email, user.id);
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class CachedUser {
+        private final Long id;
+        private final String username;
+        private final String email;
+        private final String password;
+        private final String fullName;
+        private final String role;
+        private final Boolean isActive;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime lastLogin;
+        private final long expiresAt;
+
+        private CachedUser(User user, long expiresAt) {
+            this(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), user.getFullName(),
+                    user.getRole(), user.getIsActive(), user.getCreatedAt(), user.getLastLogin(), expiresAt);
+        }
+
+        private CachedUser(Long id, String username, String email, String password, String fullName, String role,
+                           Boolean isActive, LocalDateTime createdAt, LocalDateTime lastLogin, long expiresAt) {
+            this.id = id;
+            this.username = username;
+            this.email = email;
+            this.password = password;
+            this.fullName = fullName;
+            this.role = role;
+            this.isActive = isActive;
+            this.createdAt = createdAt;
+            this.lastLogin = lastLogin;
+            this.expiresAt = expiresAt;
+        }
+
+        CachedUser withPassword(String newPassword) {
+            return new CachedUser(id, username, email, newPassword, fullName, role, isActive, createdAt, lastLogin, expiresAt);
+        }
+
+        // Reset-token fields are deliberately not cached; reset flows read them from the database
+        User toUser() {
+            User user = new User(username, email, password, fullName, role);
+            user.setId(id);
+            user.setIsActive(isActive);
+            user.setCreatedAt(createdAt);
+            user.setLastLogin(lastLogin);
+            return user;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.inventory.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the user directory (the rows behind GET /api/auth/users),
+ * used as the strong ETag of the listing endpoints so unchanged reads are answered
+ * with 304 before any query runs. Local writes bump it when their transaction
+ * completes; writes made by other instances are noticed by a periodic fingerprint
+ * query. The ETag carries a random instance epoch, so a version number is never
+ * reused across restarts or instances.
+ */
+@Service
+public class UserDirectoryVersion {
+
+    // Row count, newest id and latest change: any directory write moves one of them. Logins leave
+    // updated_at alone, so a listing's lastLogin values may be stale until the next real change
+    private static final String FINGERPRINT_SQL =
+            "SELECT COUNT(*), MAX(id), MAX(updated_at) FROM users";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong version = new AtomicLong(1);
+
+    private volatile String fingerprint;
+
+    // The variant tells apart representations of the same version, e.g. gzip and identity bodies
+    public String currentETag(String variant) {
+        return "\"" + epoch + "-" + version.get() + variant + "\"";
+    }
+
+    /**
+     * A listing-visible write happened. Bumped now and again once the current
+     * transaction completes, so a read that raced with the commit cannot keep
+     * serving the old rows under the new version.
+     */
+    public void markChanged() {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    // Pick up writes made by other instances
+    @Scheduled(fixedDelayString = "${app.users.directory-version.sync-interval-ms:10000}",
+            initialDelayString = "${app.users.directory-version.sync-interval-ms:10000}")
+    public void sync() {
+        String current;
+        try {
+            current = jdbcTemplate.queryForObject(FINGERPRINT_SQL, (rs, rowNum) ->
+                    rs.getLong(1) + ":" + rs.getLong(2) + ":" + rs.getTimestamp(3));
+        } catch (DataAccessException e) {
+            System.err.println("⚠️ User directory version check failed: " + e.getMessage());
+            return;
+        }
+        if (fingerprint != null && !fingerprint.equals(current)) {
+            version.incrementAndGet();
+        }
+        fingerprint = current;
+    }
+}
@@ -0,0 +1,756 @@
+package com.inventory.service;
+
+import com.inventory.model.UserDTO;
+import com.inventory.model.UserSearchResult;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory prefix index over the users directory: username, email, full name and
+ * every later word of the full name, lower-cased.
+ *
+ * Each search key is a (user slot, offset into the user's key text) pair packed
+ * into a long, kept in key order, so the keys starting with a prefix are one
+ * binary-searched range. The long also carries the user's role/status bucket, so
+ * facet counts are a sequential scan of the range without lookups, and how many
+ * characters the key shares with the same user's previous key, so a user with
+ * several matching keys is counted and listed once. New keys go to a small sorted
+ * delta that is merged into the base array once it grows. Arrays are replaced
+ * rather than resized, so searches read a published snapshot without locking;
+ * a status change rewrites the user's entries in place. One writer at a time.
+ *
+ * Entry layout: slot (32 bits) | offset (16) | bucket (8) | shared with previous key (8)
+ */
+public final class UserSearchIndex {
+
+    // Longer queries are cut; no indexed field is longer
+    public static final int MAX_QUERY_LENGTH = 100;
+
+    private static final VarHandle ENTRY = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final long[] NO_ENTRIES = new long[0];
+    private static final char SEPARATOR = '\0';
+    private static final int MAX_FIELD_LENGTH = 255;
+
+    // bucket = role id << 1 | active; role ids 0..126 keep every bucket below DEAD
+    private static final int DEAD = 0xFF;
+    private static final int MAX_ROLES = 127;
+    private static final String OTHER_ROLE = "OTHER";
+
+    private static final int MAX_SHARED = 0xFF;
+    private static final int MERGE_THRESHOLD = 8192;
+    private static final int INSERTION_SORT_THRESHOLD = 12;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    // Slot columns: appended by the writer, never shrunk (deleted slots stay until a rebuild)
+    private long[] ids;
+    private long[] createdAt;
+    private String[] texts;
+    private String[] keys;
+    private String[] roles;
+    private byte[] buckets;
+    private int size;
+    private int live;
+
+    private long[] base = NO_ENTRIES;
+    private long[] delta = NO_ENTRIES;
+
+    private final int[] counts = new int[DEAD + 1];
+    private final String[] roleNames = new String[MAX_ROLES];
+    private final Map<String, Integer> roleIds = new HashMap<>();
+    private final SlotMap slotsById = new SlotMap();
+
+    private volatile Snapshot snapshot;
+
+    public UserSearchIndex() {
+        ids = new long[1024];
+        createdAt = new long[1024];
+        texts = new String[1024];
+        keys = new String[1024];
+        roles = new String[1024];
+        buckets = new byte[1024];
+        publish();
+    }
+
+    /**
+     * Bulk load: entries are sorted once at the end instead of merged user by user
+     */
+    public static final class Builder {
+
+        private final UserSearchIndex index = new UserSearchIndex();
+        private long[] entries = new long[4096];
+        private int count;
+
+        public void add(UserDTO user) {
+            if (user.getId() == null || index.slotsById.get(user.getId()) >= 0) {
+                return;
+            }
+            long[] own = index.entriesFor(index.appendSlot(user));
+            if (count + own.length > entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(entries.length * 2, count + own.length));
+            }
+            System.arraycopy(own, 0, entries, count, own.length);
+            count += own.length;
+        }
+
+        public UserSearchIndex build() {
+            long[] sorted = Arrays.copyOf(entries, count);
+            sort(sorted, 0, count, 0, index.keys);
+            synchronized (index) {
+                index.base = sorted;
+                index.publish();
+            }
+            return index;
+        }
+    }
+
+    // Adds the users, or replaces them when the id is already indexed
+    public synchronized void putAll(Collection<UserDTO> users) {
+        long[] added = new long[users.size() * 4];
+        int count = 0;
+        for (UserDTO user : users) {
+            if (user.getId() == null) {
+                continue;
+            }
+            int existing = slotsById.get(user.getId());
+            if (existing >= 0) {
+                if (keys[existing].equals(keyText(user))) {
+                    texts[existing] = displayText(user);
+                    setBucket(existing, bucketFor(user.getRole(), user.getIsActive()));
+                    roles[existing] = roleName(user.getRole());
+                    continue;
+                }
+                setBucket(existing, DEAD);
+                slotsById.remove(user.getId());
+            }
+            long[] own = entriesFor(appendSlot(user));
+            if (count + own.length > added.length) {
+                added = Arrays.copyOf(added, Math.max(added.length * 2, count + own.length));
+            }
+            System.arraycopy(own, 0, added, count, own.length);
+            count += own.length;
+        }
+        if (count > 0) {
+            long[] batch = Arrays.copyOf(added, count);
+            sort(batch, 0, count, 0, keys);
+            delta = merge(delta, batch, false);
+            if (delta.length > MERGE_THRESHOLD) {
+                base = merge(base, delta, true);
+                delta = NO_ENTRIES;
+            }
+        }
+        publish();
+    }
+
+    public void put(UserDTO user) {
+        putAll(Collections.singletonList(user));
+    }
+
+    public synchronized void setActive(long id, boolean active) {
+        int slot = slotsById.get(id);
+        if (slot < 0) {
+            return;
+        }
+        setBucket(slot, (buckets[slot] & 0xFF) & ~1 | (active ? 1 : 0));
+        publish();
+    }
+
+    public synchronized void remove(long id) {
+        int slot = slotsById.get(id);
+        if (slot < 0) {
+            return;
+        }
+        setBucket(slot, DEAD);
+        slotsById.remove(id);
+        publish();
+    }
+
+    // Indexed users, deleted ones excluded
+    public int size() {
+        return snapshot.live;
+    }
+
+    // Search keys held, including those of deleted users not yet merged away
+    public int keyCount() {
+        return snapshot.base.length + snapshot.delta.length;
+    }
+
+    /**
+     * Users with a key starting with the query, first {@code limit} in key order,
+     * with role and status facet counts over all matches
+     *
+     * @param role   exact role, or null for any
+     * @param active status, or null for any
+     */
+    public UserSearchResult search(String query, String role, Boolean active, int limit) {
+        Snapshot s = snapshot;
+        String prefix = normalize(query, MAX_QUERY_LENGTH, true);
+        int p = prefix.length();
+        int roleFilter = role == null || role.isEmpty() ? -1 : s.roleId(role);
+
+        int baseFrom = 0;
+        int baseTo = s.base.length;
+        int deltaFrom = 0;
+        int deltaTo = s.delta.length;
+        int[] matches;
+        if (p == 0) {
+            matches = s.counts;
+        } else {
+            baseFrom = bound(s.base, s.keys, prefix, false);
+            baseTo = bound(s.base, s.keys, prefix, true);
+            deltaFrom = bound(s.delta, s.keys, prefix, false);
+            deltaTo = bound(s.delta, s.keys, prefix, true);
+            matches = new int[DEAD + 1];
+            count(s.base, baseFrom, baseTo, p, matches);
+            count(s.delta, deltaFrom, deltaTo, p, matches);
+        }
+
+        // Both ranges in key order; a user's first matching key is the one not marked as shared
+        List<UserDTO> users = new ArrayList<>(Math.min(limit, 64));
+        int i = baseFrom;
+        int j = deltaFrom;
+        while (users.size() < limit && (i < baseTo || j < deltaTo)) {
+            long entry = j >= deltaTo || (i < baseTo && compare(s.base[i], s.delta[j], p, s.keys) < 0)
+                    ? s.base[i++] : s.delta[j++];
+            int bucket = bucket(entry);
+            if (shared(entry) <= p && bucket != DEAD && accepts(bucket, roleFilter, active)) {
+                users.add(s.user(slot(entry), bucket));
+            }
+        }
+
+        long total = 0;
+        long activeCount = 0;
+        long inactiveCount = 0;
+        Map<String, Long> roleCounts = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < DEAD; bucket++) {
+            int n = matches[bucket];
+            if (n == 0) {
+                continue;
+            }
+            boolean roleMatches = roleFilter == -1 || bucket >> 1 == roleFilter;
+            boolean statusMatches = active == null || active == ((bucket & 1) == 1);
+            if (statusMatches) {
+                roleCounts.merge(s.roleNames[bucket >> 1], (long) n, Long::sum);
+            }
+            if (roleMatches) {
+                if ((bucket & 1) == 1) {
+                    activeCount += n;
+                } else {
+                    inactiveCount += n;
+                }
+            }
+            if (roleMatches && statusMatches) {
+                total += n;
+            }
+        }
+        Map<String, Long> status = new LinkedHashMap<>();
+        status.put("active", activeCount);
+        status.put("inactive", inactiveCount);
+        return new UserSearchResult(users, total, roleCounts, status);
+    }
+
+    private static boolean accepts(int bucket, int roleFilter, Boolean active) {
+        return (roleFilter == -1 || bucket >> 1 == roleFilter) && (active == null || active == ((bucket & 1) == 1));
+    }
+
+    // A key counts once per user: when it shares fewer than p characters with the user's previous key
+    private static void count(long[] entries, int from, int to, int p, int[] matches) {
+        for (int i = from; i < to; i++) {
+            long entry = entries[i];
+            if (shared(entry) <= p) {
+                matches[bucket(entry)]++;
+            }
+        }
+    }
+
+    private int appendSlot(UserDTO user) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            roles = Arrays.copyOf(roles, capacity);
+            buckets = Arrays.copyOf(buckets, capacity);
+        }
+        int slot = size++;
+        String text = displayText(user);
+        String key = keyText(user);
+        ids[slot] = user.getId();
+        createdAt[slot] = user.getCreatedAt() != null
+                ? user.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : NO_TIMESTAMP;
+        texts[slot] = text;
+        keys[slot] = key.equals(text) ? text : key;
+        int bucket = bucketFor(user.getRole(), user.getIsActive());
+        roles[slot] = roleName(user.getRole());
+        buckets[slot] = (byte) bucket;
+        counts[bucket]++;
+        live++;
+        slotsById.put(user.getId(), slot);
+        return slot;
+    }
+
+    private void setBucket(int slot, int bucket) {
+        int old = buckets[slot] & 0xFF;
+        if (old == bucket) {
+            return;
+        }
+        if (old != DEAD) {
+            counts[old]--;
+            live--;
+        }
+        if (bucket != DEAD) {
+            counts[bucket]++;
+            live++;
+        }
+        buckets[slot] = (byte) bucket;
+        for (long entry : entriesFor(slot)) {
+            rewrite(base, entry);
+            rewrite(delta, entry);
+        }
+    }
+
+    // Release store of the whole long: a concurrent search sees the old or the new bucket
+    private void rewrite(long[] entries, long entry) {
+        int lo = lowerBound(entries, 0, entry);
+        if (lo < entries.length && entries[lo] >>> 16 == entry >>> 16) {
+            ENTRY.setRelease(entries, lo, entries[lo] & ~0xFF00L | entry & 0xFF00L);
+        }
+    }
+
+    // The user's keys in key order, duplicates dropped, each marked with what it shares with the one before
+    private long[] entriesFor(int slot) {
+        String key = keys[slot];
+        int bucket = buckets[slot] & 0xFF;
+        int[] starts = keyStarts(key);
+        int n = starts.length;
+        for (int i = 1; i < n; i++) {
+            int start = starts[i];
+            int j = i - 1;
+            while (j >= 0 && compareKeys(key, starts[j], start) > 0) {
+                starts[j + 1] = starts[j];
+                j--;
+            }
+            starts[j + 1] = start;
+        }
+        long[] entries = new long[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (count > 0 && compareKeys(key, starts[i - 1], starts[i]) == 0) {
+                continue;
+            }
+            int shared = count == 0 ? 0 : Math.min(commonPrefix(key, starts[i - 1], starts[i]) + 1, MAX_SHARED);
+            entries[count++] = entry(slot, starts[i], bucket, shared);
+        }
+        return count == n ? entries : Arrays.copyOf(entries, count);
+    }
+
+    // Username, email and full name, then each later word of the full name; empty keys skipped
+    private static int[] keyStarts(String key) {
+        int email = key.indexOf(SEPARATOR) + 1;
+        int fullName = key.indexOf(SEPARATOR, email) + 1;
+        int[] starts = new int[8];
+        int n = 0;
+        for (int start : new int[]{0, email, fullName}) {
+            if (charAt(key, start) >= 0) {
+                starts[n++] = start;
+            }
+        }
+        for (int i = fullName; i < key.length() - 1; i++) {
+            if (key.charAt(i) == ' ') {
+                if (n == starts.length) {
+                    starts = Arrays.copyOf(starts, n * 2);
+                }
+                starts[n++] = i + 1;
+            }
+        }
+        return Arrays.copyOf(starts, n);
+    }
+
+    private int bucketFor(String role, Boolean active) {
+        String name = roleName(role);
+        Integer id = roleIds.get(name);
+        if (id == null) {
+            id = roleIds.size() < MAX_ROLES - 1 ? roleIds.size() : MAX_ROLES - 1;
+            if (id < MAX_ROLES - 1) {
+                roleIds.put(name, id);
+                roleNames[id] = name;
+            } else {
+                roleNames[id] = OTHER_ROLE;
+            }
+        }
+        return id << 1 | (Boolean.FALSE.equals(active) ? 0 : 1);
+    }
+
+    // One String instance per role name across all slots
+    private String roleName(String role) {
+        String name = role != null ? role : "";
+        Integer id = roleIds.get(name);
+        return id != null ? roleNames[id] : name;
+    }
+
+    private void publish() {
+        snapshot = new Snapshot(base, delta, ids, createdAt, texts, roles, keys, counts.clone(), roleNames.clone(), live);
+    }
+
+    private static String displayText(UserDTO user) {
+        return nullToEmpty(user.getUsername()) + SEPARATOR + nullToEmpty(user.getEmail()) + SEPARATOR
+                + nullToEmpty(user.getFullName());
+    }
+
+    private static String keyText(UserDTO user) {
+        return normalize(user.getUsername(), MAX_FIELD_LENGTH, false) + SEPARATOR
+                + normalize(user.getEmail(), MAX_FIELD_LENGTH, false) + SEPARATOR
+                + normalize(user.getFullName(), MAX_FIELD_LENGTH, false);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    // Lower-cased, whitespace runs collapsed to one space, no leading space; a query keeps one trailing space
+    static String normalize(String value, int maxLength, boolean keepTrailingSpace) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(Math.min(value.length(), maxLength));
+        boolean space = false;
+        for (int i = 0; i < value.length() && out.length() < maxLength; i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c) || c == SEPARATOR) {
+                space = out.length() > 0;
+                continue;
+            }
+            if (space) {
+                out.append(' ');
+                space = false;
+                if (out.length() == maxLength) {
+                    break;
+                }
+            }
+            out.append(Character.toLowerCase(c));
+        }
+        if (space && keepTrailingSpace && out.length() < maxLength) {
+            out.append(' ');
+        }
+        return out.toString();
+    }
+
+    private static long entry(int slot, int offset, int bucket, int shared) {
+        return (long) slot << 32 | (long) offset << 16 | (long) bucket << 8 | shared;
+    }
+
+    private static int slot(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    private static int offset(long entry) {
+        return (int) (entry >>> 16) & 0xFFFF;
+    }
+
+    private static int bucket(long entry) {
+        return (int) (entry >>> 8) & 0xFF;
+    }
+
+    private static int shared(long entry) {
+        return (int) entry & 0xFF;
+    }
+
+    // -1 past the end of the key
+    private static int charAt(String key, int index) {
+        if (index >= key.length()) {
+            return -1;
+        }
+        char c = key.charAt(index);
+        return c == SEPARATOR ? -1 : c;
+    }
+
+    private static int charAt(long entry, int depth, String[] keys) {
+        return charAt(keys[slot(entry)], offset(entry) + depth);
+    }
+
+    private static int compareKeys(String key, int a, int b) {
+        for (int d = 0; ; d++) {
+            int ca = charAt(key, a + d);
+            int cb = charAt(key, b + d);
+            if (ca != cb) {
+                return ca < cb ? -1 : 1;
+            }
+            if (ca < 0) {
+                return 0;
+            }
+        }
+    }
+
+    private static int commonPrefix(String key, int a, int b) {
+        int d = 0;
+        while (charAt(key, a + d) >= 0 && charAt(key, a + d) == charAt(key, b + d)) {
+            d++;
+        }
+        return d;
+    }
+
+    // Key order from the given depth, then slot
+    private static int compare(long a, long b, int depth, String[] keys) {
+        String keyA = keys[slot(a)];
+        String keyB = keys[slot(b)];
+        int offsetA = offset(a);
+        int offsetB = offset(b);
+        for (int d = depth; ; d++) {
+            int ca = charAt(keyA, offsetA + d);
+            int cb = charAt(keyB, offsetB + d);
+            if (ca != cb) {
+                return ca < cb ? -1 : 1;
+            }
+            if (ca < 0) {
+                return Integer.compare(slot(a), slot(b));
+            }
+        }
+    }
+
+    // First entry whose key is not below the prefix, or (after) that sorts after every key starting with it
+    private static int bound(long[] entries, String[] keys, String prefix, boolean after) {
+        int lo = 0;
+        int hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = comparePrefix(entries[mid], keys, prefix);
+            if (c < 0 || after && c == 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int comparePrefix(long entry, String[] keys, String prefix) {
+        String key = keys[slot(entry)];
+        int offset = offset(entry);
+        for (int d = 0; d < prefix.length(); d++) {
+            int c = charAt(key, offset + d);
+            char q = prefix.charAt(d);
+            if (c != q) {
+                return c < q ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    // b is the smaller side: each of its entries is placed by binary search and the runs of a between are block-copied
+    private long[] merge(long[] a, long[] b, boolean dropDead) {
+        long[] out = new long[a.length + b.length];
+        int n = 0;
+        int from = 0;
+        for (long entry : b) {
+            int to = lowerBound(a, from, entry);
+            n = copy(a, from, to, out, n, dropDead);
+            if (!dropDead || bucket(entry) != DEAD) {
+                out[n++] = entry;
+            }
+            from = to;
+        }
+        n = copy(a, from, a.length, out, n, dropDead);
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static int copy(long[] from, int start, int end, long[] to, int n, boolean dropDead) {
+        if (!dropDead) {
+            System.arraycopy(from, start, to, n, end - start);
+            return n + end - start;
+        }
+        for (int i = start; i < end; i++) {
+            if (bucket(from[i]) != DEAD) {
+                to[n++] = from[i];
+            }
+        }
+        return n;
+    }
+
+    // First position at or after from whose entry does not sort before the given one
+    private int lowerBound(long[] entries, int from, long entry) {
+        int lo = from;
+        int hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(entries[mid], entry, 0, keys) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Three-way radix quicksort on the key character at depth d; identical keys end up ordered by slot
+    private static void sort(long[] a, int lo, int hi, int d, String[] keys) {
+        while (hi - lo > INSERTION_SORT_THRESHOLD) {
+            int pivot = median(charAt(a[lo], d, keys), charAt(a[(lo + hi) >>> 1], d, keys), charAt(a[hi - 1], d, keys));
+            int lt = lo;
+            int gt = hi - 1;
+            int i = lo;
+            while (i <= gt) {
+                int c = charAt(a[i], d, keys);
+                if (c < pivot) {
+                    swap(a, lt++, i++);
+                } else if (c > pivot) {
+                    swap(a, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            sort(a, lo, lt, d, keys);
+            if (pivot < 0) {
+                // The slot is the high half of the entry
+                Arrays.sort(a, lt, gt + 1);
+            } else {
+                sort(a, lt, gt + 1, d + 1, keys);
+            }
+            lo = gt + 1;
+        }
+        for (int i = lo + 1; i < hi; i++) {
+            long entry = a[i];
+            int j = i - 1;
+            while (j >= lo && compare(a[j], entry, d, keys) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = entry;
+        }
+    }
+
+    private static int median(int a, int b, int c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static void swap(long[] a, int i, int j) {
+        long t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    private static final class Snapshot {
+
+        final long[] base;
+        final long[] delta;
+        final long[] ids;
+        final long[] createdAt;
+        final String[] texts;
+        final String[] roles;
+        final String[] keys;
+        final int[] counts;
+        final String[] roleNames;
+        final int live;
+
+        Snapshot(long[] base, long[] delta, long[] ids, long[] createdAt, String[] texts, String[] roles,
+                 String[] keys, int[] counts, String[] roleNames, int live) {
+            this.base = base;
+            this.delta = delta;
+            this.ids = ids;
+            this.createdAt = createdAt;
+            this.texts = texts;
+            this.roles = roles;
+            this.keys = keys;
+            this.counts = counts;
+            this.roleNames = roleNames;
+            this.live = live;
+        }
+
+        // -2 for a role nobody has, so nothing matches
+        int roleId(String role) {
+            for (int id = 0; id < roleNames.length && roleNames[id] != null; id++) {
+                if (roleNames[id].equals(role)) {
+                    return id;
+                }
+            }
+            return -2;
+        }
+
+        UserDTO user(int slot, int bucket) {
+            String text = texts[slot];
+            int email = text.indexOf(SEPARATOR);
+            int fullName = text.indexOf(SEPARATOR, email + 1);
+            long created = createdAt[slot];
+            return new UserDTO(ids[slot], text.substring(0, email), text.substring(email + 1, fullName),
+                    text.substring(fullName + 1), roles[slot], (bucket & 1) == 1,
+                    created == NO_TIMESTAMP ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(created, 1000L),
+                            (int) Math.floorMod(created, 1000L) * 1_000_000, ZoneOffset.UTC),
+                    null);
+        }
+    }
+
+    // id -> slot, open addressing; a removed id keeps its cell with slot -1 (ids are never reused)
+    private static final class SlotMap {
+
+        private long[] keys = new long[2048];
+        private int[] slots = new int[2048];
+        private int used;
+
+        int get(long id) {
+            int mask = keys.length - 1;
+            for (int i = hash(id) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == id) {
+                    return slots[i];
+                }
+                if (keys[i] == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long id, int slot) {
+            if ((used + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = hash(id) & mask;
+            while (keys[i] != 0 && keys[i] != id) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                keys[i] = id;
+                used++;
+            }
+            slots[i] = slot;
+        }
+
+        void remove(long id) {
+            int mask = keys.length - 1;
+            for (int i = hash(id) & mask; keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == id) {
+                    slots[i] = -1;
+                    return;
+                }
+            }
+        }
+
+        // Removed ids are dropped here
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldSlots = slots;
+            keys = new long[oldKeys.length * 2];
+            slots = new int[oldKeys.length * 2];
+            used = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0 && oldSlots[i] >= 0) {
+                    put(oldKeys[i], oldSlots[i]);
+                }
+            }
+        }
+
+        private static int hash(long id) {
+            return (int) (id * 0x9E3779B97F4A7C15L >>> 32);
+        }
+    }
+}
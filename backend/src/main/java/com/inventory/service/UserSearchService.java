@@ -0,0 +1,190 @@
+package com.inventory.service;
+
+import com.inventory.model.User;
+import com.inventory.model.UserDTO;
+import com.inventory.model.UserSearchResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Typeahead search over the user directory for the admin dashboard, answered from
+ * an in-memory UserSearchIndex instead of LIKE scans. The index is loaded from the
+ * users table in the background at startup and rebuilt periodically, which also
+ * picks up writes made by other instances; local writes are applied to it as soon
+ * as their transaction commits.
+ */
+@Service
+public class UserSearchService {
+
+    private static final String LOAD_SQL =
+            "SELECT id, username, email, full_name, role, is_active, created_at FROM users";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.users.search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.users.search.max-results:50}")
+    private int maxResults;
+
+    @Value("${app.users.search.load-fetch-size:5000}")
+    private int loadFetchSize;
+
+    // Only the servlet API serves searches
+    @Value("${spring.main.web-application-type:servlet}")
+    private String webApplicationType;
+
+    private volatile UserSearchIndex index;
+
+    // Changes committed while a rebuild is loading, replayed on the new index before it is swapped in
+    private List<Consumer<UserSearchIndex>> pending;
+
+    private Timer searchTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        searchTimer = Timer.builder("users.search").register(meterRegistry);
+        Gauge.builder("users.search.indexed", this, service -> service.index != null ? service.index.size() : 0)
+                .register(meterRegistry);
+        Gauge.builder("users.search.keys", this, service -> service.index != null ? service.index.keyCount() : 0)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled && !"reactive".equalsIgnoreCase(webApplicationType);
+    }
+
+    // False until the first load has finished
+    public boolean isReady() {
+        return index != null;
+    }
+
+    // Callers check isReady() first
+    public UserSearchResult search(String query, String role, Boolean active, int limit) {
+        long start = System.nanoTime();
+        UserSearchResult result = index.search(query, role, active, Math.max(1, Math.min(limit, maxResults)));
+        searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    // Full rebuild; the first run happens right after startup
+    @Scheduled(fixedDelayString = "${app.users.search.refresh-interval-ms:600000}")
+    public void refresh() {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        long start = System.currentTimeMillis();
+        UserSearchIndex.Builder builder = new UserSearchIndex.Builder();
+        try {
+            // With useCursorFetch=true MySQL streams the rows instead of buffering the whole table
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(LOAD_SQL);
+                statement.setFetchSize(loadFetchSize);
+                return statement;
+            }, rs -> {
+                builder.add(toUser(rs));
+            });
+        } catch (DataAccessException e) {
+            synchronized (this) {
+                pending = null;
+            }
+            System.err.println("⚠️ User search index load failed: " + e.getMessage());
+            return;
+        }
+        UserSearchIndex loaded = builder.build();
+        synchronized (this) {
+            pending.forEach(change -> change.accept(loaded));
+            pending = null;
+            index = loaded;
+        }
+        System.out.println("🔎 User search index loaded: " + loaded.size() + " users, " + loaded.keyCount()
+                + " keys in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public void userSaved(User user) {
+        UserDTO row = new UserDTO(user);
+        afterCommit(index -> index.put(row));
+    }
+
+    public void userDeactivated(Long id) {
+        afterCommit(index -> index.setActive(id, false));
+    }
+
+    public void userDeleted(Long id) {
+        afterCommit(index -> index.remove(id));
+    }
+
+    /**
+     * Users inserted by the current transaction without their generated ids:
+     * read back on the same connection, indexed once it commits
+     */
+    public void usersInserted(Collection<String> usernames) {
+        if (!isEnabled() || usernames.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(usernames.size(), "?"));
+        List<UserDTO> rows = jdbcTemplate.query(LOAD_SQL + " WHERE username IN (" + placeholders + ")",
+                (rs, rowNum) -> toUser(rs), usernames.toArray());
+        afterCommit(index -> index.putAll(rows));
+    }
+
+    private void afterCommit(Consumer<UserSearchIndex> change) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(Consumer<UserSearchIndex> change) {
+        if (pending != null) {
+            pending.add(change);
+        }
+        if (index != null) {
+            change.accept(index);
+        }
+    }
+
+    private static UserDTO toUser(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new UserDTO(rs.getLong("id"), rs.getString("username"), rs.getString("email"),
+                rs.getString("full_name"), rs.getString("role"), rs.getBoolean("is_active"),
+                createdAt != null ? createdAt.toLocalDateTime() : null, null);
+    }
+}
@@ -0,0 +1,180 @@
+package com.inventory.template;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precompiled HTML template with {{name}} placeholders.
+ * The source is parsed once into UTF-8 encoded static segments and placeholder
+ * slots; rendering copies the segments and HTML-escapes the values straight into
+ * a per-thread buffer, so no intermediate Strings are built.
+ */
+public final class HtmlTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private static final ThreadLocal<RenderBuffer> BUFFER = ThreadLocal.withInitial(RenderBuffer::new);
+
+    // segments[i] is written before slots[i]; the last segment has no slot after it
+    private final byte[][] segments;
+    private final int[] slots;
+    private final int staticLength;
+
+    private HtmlTemplate(byte[][] segments, int[] slots) {
+        this.segments = segments;
+        this.slots = slots;
+        int length = 0;
+        for (byte[] segment : segments) {
+            length += segment.length;
+        }
+        this.staticLength = length;
+    }
+
+    /**
+     * Compile template source. Parameter order defines the argument order of render().
+     */
+    public static HtmlTemplate compile(String source, String... parameters) {
+        List<byte[]> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            int slot = Arrays.asList(parameters).indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown placeholder: " + name);
+            }
+            segments.add(source.substring(position, open).getBytes(StandardCharsets.UTF_8));
+            slots.add(slot);
+            position = close + CLOSE.length();
+        }
+        segments.add(source.substring(position).getBytes(StandardCharsets.UTF_8));
+
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new HtmlTemplate(segments.toArray(new byte[0][]), slotArray);
+    }
+
+    /**
+     * Load and compile a UTF-8 template from the classpath
+     */
+    public static HtmlTemplate load(String resource, String... parameters) {
+        try (InputStream in = HtmlTemplate.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Template not found: " + resource);
+            }
+            return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8), parameters);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read template " + resource + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Render to UTF-8 bytes. Values are HTML-escaped; null renders as empty.
+     */
+    public byte[] render(String... values) {
+        RenderBuffer buffer = BUFFER.get();
+        buffer.reset(staticLength);
+        for (int i = 0; i < slots.length; i++) {
+            buffer.write(segments[i]);
+            buffer.writeEscaped(values[slots[i]]);
+        }
+        buffer.write(segments[slots.length]);
+        return buffer.toByteArray();
+    }
+
+    public String renderToString(String... values) {
+        return new String(render(values), StandardCharsets.UTF_8);
+    }
+
+    // Growable byte buffer reused across renders on the same thread
+    private static final class RenderBuffer {
+
+        private static final int MAX_RETAINED = 64 * 1024;
+
+        private byte[] bytes = new byte[4096];
+        private int size;
+
+        void reset(int expected) {
+            if (bytes.length > MAX_RETAINED && expected <= MAX_RETAINED) {
+                bytes = new byte[MAX_RETAINED];
+            }
+            size = 0;
+            ensure(expected);
+        }
+
+        void write(byte[] segment) {
+            ensure(segment.length);
+            System.arraycopy(segment, 0, bytes, size, segment.length);
+            size += segment.length;
+        }
+
+        void writeEscaped(String value) {
+            if (value == null) {
+                return;
+            }
+            // Worst case is 6 bytes per char ("&quot;")
+            ensure(value.length() * 6);
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&': ascii("&amp;"); break;
+                    case '<': ascii("&lt;"); break;
+                    case '>': ascii("&gt;"); break;
+                    case '"': ascii("&quot;"); break;
+                    case '\'': ascii("&#39;"); break;
+                    default:
+                        if (c < 0x80) {
+                            bytes[size++] = (byte) c;
+                        } else if (c < 0x800) {
+                            bytes[size++] = (byte) (0xC0 | (c >> 6));
+                            bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                        } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                                && Character.isLowSurrogate(value.charAt(i + 1))) {
+                            int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                            bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+                            bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                            bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                            bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+                        } else if (Character.isSurrogate(c)) {
+                            bytes[size++] = (byte) '?';
+                        } else {
+                            bytes[size++] = (byte) (0xE0 | (c >> 12));
+                            bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                            bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                        }
+                }
+            }
+        }
+
+        private void ascii(String entity) {
+            for (int i = 0; i < entity.length(); i++) {
+                bytes[size++] = (byte) entity.charAt(i);
+            }
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
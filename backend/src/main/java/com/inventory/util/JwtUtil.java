@@ -1,24 +1,97 @@
 package com.inventory.util;
 
+import com.inventory.security.JwtKeyRing;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
 public class JwtUtil {
     
-    // Secret key for JWT signing (In production, use environment variable)
-    private final Key SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    // Persistent ES256 key ring shared by all instances; tokens name their key in the kid header
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
     
-    // Token validity: 24 hours
-    private final long JWT_EXPIRATION = 24 * 60 * 60 * 1000;
+    // Access tokens are short-lived; clients renew them with a refresh token
+    @Value("${app.jwt.access-token-ttl-seconds:900}")
+    private long accessTokenTtlSeconds;
+    
+    // Parsers are immutable and thread-safe; the key is resolved per token from its kid
+    private final JwtParser jwtParser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return jwtKeyRing.getVerificationKey(header.getKeyId());
+                }
+            })
+            .build();
+    
+    // Already-verified claims keyed by SHA-256 of the token, dropped at the token's expiry.
+    // Request threads only read and insert; trimming to max-entries is left to the scheduled sweep.
+    private final Map<String, VerifiedClaims> verifiedCache = new ConcurrentHashMap<>();
+    
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder cacheEvictions = new LongAdder();
+    
+    // Issue time in epoch milliseconds; iat only has whole seconds, too coarse for revocation cutoffs
+    public static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+    
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+    
+    @Value("${app.jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer signTimer;
+    private Timer parseTimer;
+    
+    @PostConstruct
+    public void registerMetrics() {
+        signTimer = Timer.builder("jwt.sign").register(meterRegistry);
+        parseTimer = Timer.builder("jwt.parse").description("Signature verification on cache misses").register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.hits", cacheHits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.misses", cacheMisses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.evictions", cacheEvictions, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("jwt.cache.size", verifiedCache, Map::size).register(meterRegistry);
+    }
     
     // Generate JWT token
     public String generateToken(String username, String role) {
@@ -29,12 +102,21 @@ public class JwtUtil {
     
     // Create token with claims
     private String createToken(Map<String, Object> claims, String subject) {
+        return signTimer.record(() -> signToken(claims, subject));
+    }
+    
+    private String signToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
+        JwtKeyRing.SigningKey signingKey = jwtKeyRing.getSigningKey();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION))
-                .signWith(SECRET_KEY)
+                .setIssuedAt(new Date(now))
+                .claim(ISSUED_AT_MS_CLAIM, now)
+                .setExpiration(new Date(now + accessTokenTtlSeconds * 1000))
+                .signWith(signingKey.getPrivateKey(), SignatureAlgorithm.ES256)
                 .compact();
     }
     
@@ -53,23 +135,104 @@ public class JwtUtil {
         return extractAllClaims(token).getExpiration();
     }
     
-    // Extract all claims
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Extract all claims, verifying the signature only on a cache miss; callers get their own copy
+    public Claims extractAllClaims(String token) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        
+        VerifiedClaims cached = verifiedCache.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                cacheHits.increment();
+                return Jwts.claims(cached.claims);
+            }
+            if (verifiedCache.remove(digest, cached)) {
+                cacheEvictions.increment();
+            }
+        }
+        
+        cacheMisses.increment();
+        Claims claims;
+        long startedAt = System.nanoTime();
+        try {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+        } finally {
+            parseTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        // While full, new tokens go uncached until the sweep makes room
+        if (claims.getExpiration() != null && verifiedCache.size() < cacheMaxEntries) {
+            verifiedCache.put(digest, new VerifiedClaims(Collections.unmodifiableMap(new LinkedHashMap<>(claims)),
+                    claims.getExpiration().getTime()));
+        }
+        return claims;
     }
     
     // Check if token is expired
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
     
     // Validate token
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(username) && !isTokenExpired(claims));
+    }
+    
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+    
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+    
+    /**
+     * Drop expired entries; if the cache is still above 90% of its bound, drop
+     * the entries that expire soonest (they have the least use left) until it is not
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.cache.sweep-interval-ms:1000}")
+    public void sweepCache() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        Iterator<VerifiedClaims> it = verifiedCache.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expiresAt <= now) {
+                it.remove();
+                removed++;
+            }
+        }
+        int target = cacheMaxEntries - cacheMaxEntries / 10;
+        if (verifiedCache.size() > target) {
+            long[] expiries = verifiedCache.values().stream().mapToLong(entry -> entry.expiresAt).toArray();
+            Arrays.sort(expiries);
+            int excess = expiries.length - target;
+            long cutoff = expiries[Math.min(excess, expiries.length) - 1];
+            it = verifiedCache.values().iterator();
+            while (excess > 0 && it.hasNext()) {
+                if (it.next().expiresAt <= cutoff) {
+                    it.remove();
+                    removed++;
+                    excess--;
+                }
+            }
+        }
+        cacheEvictions.add(removed);
+    }
+    
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+    
+    // Read-only snapshot; hits hand out copies so no caller can change what others see
+    private static final class VerifiedClaims {
+        private final Map<String, Object> claims;
+        private final long expiresAt;
+        
+        private VerifiedClaims(Map<String, Object> claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
     }
 }
@@ -0,0 +1,54 @@
+package com.inventory.util;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Random bearer secrets that are stored only as digests (password reset and
+ * refresh tokens). The raw token is handed to the user once; the database keeps
+ * its SHA-256, so a leaked row or backup cannot be replayed and the token can be
+ * looked up directly through an index on the digest column.
+ */
+@Component
+public class OpaqueTokenUtil {
+    
+    // 256 bits of entropy, URL-safe so it survives being pasted from an email
+    private static final int TOKEN_BYTES = 32;
+    
+    private final SecureRandom secureRandom = new SecureRandom();
+    
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+    
+    // Generate a new raw token to hand to the user
+    public String generateToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+    
+    // Digest stored in (and looked up by) the token column
+    public String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.trim().getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+    
+    // Constant-time comparison of a presented token against a stored digest
+    public boolean matches(String token, String storedDigest) {
+        if (token == null || storedDigest == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(digest(token).getBytes(StandardCharsets.US_ASCII),
+                storedDigest.getBytes(StandardCharsets.US_ASCII));
+    }
+}
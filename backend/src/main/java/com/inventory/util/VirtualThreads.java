@@ -0,0 +1,38 @@
+package com.inventory.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual threads without compiling against JDK 21: the builder API is looked up
+ * reflectively, so the same build runs on older JDKs and only the opt-in mode
+ * needs a runtime that has them.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Factory for virtual threads named prefix0, prefix1, ...,
+     * or null when the running JDK has no (non-preview) virtual threads
+     */
+    public static ThreadFactory factory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            Method name = ofVirtual.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, prefix, 0L);
+            return (ThreadFactory) ofVirtual.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // JDK < 19, or 19/20 without --enable-preview
+            return null;
+        }
+    }
+
+    // One new thread per task; nothing is pooled because virtual threads are cheap to create
+    public static Executor perTaskExecutor(ThreadFactory factory) {
+        return task -> factory.newThread(task).start();
+    }
+}
@@ -0,0 +1,16 @@
+-- Secondary indexes for the users query paths (see UserRepository). Without them findByRole,
+-- findByIsActive and any ORDER BY created_at / last_login scan the whole table.
+-- MySQL 8 builds secondary indexes in place, without blocking writes to the table.
+
+-- findByRole, and role + active filters (leftmost prefix serves role alone)
+CREATE INDEX idx_users_role_active ON users (role, is_active);
+
+-- findByIsActive, and active/inactive users ordered by last login (stale-account reports)
+CREATE INDEX idx_users_active_last_login ON users (is_active, last_login);
+
+-- Newest accounts first (the admin view); MySQL also scans it backwards for oldest first
+CREATE INDEX idx_users_created_at ON users (created_at DESC);
+
+-- Recent-login ordering across all users; MAX(last_login) in the directory version
+-- fingerprint becomes a single index probe
+CREATE INDEX idx_users_last_login ON users (last_login);
@@ -0,0 +1,3 @@
+-- Retention purge of delivered outbox rows: DELETE ... WHERE status = 'SENT' AND sent_at < ? LIMIT ?
+-- reads only the expired SENT rows instead of every row with that status.
+CREATE INDEX idx_outbox_status_sent_at ON email_outbox (status, sent_at);
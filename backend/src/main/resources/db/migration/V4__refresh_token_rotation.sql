@@ -0,0 +1,4 @@
+-- When a refresh token was exchanged for a new one, as opposed to logged out or revoked.
+-- Presenting it again within app.jwt.refresh-token-reuse-grace-seconds of that is a
+-- concurrent refresh (two tabs), not a replay.
+ALTER TABLE refresh_tokens ADD COLUMN rotated_at TIMESTAMP NULL;
@@ -0,0 +1,3 @@
+-- Per-user cutoffs are compared with the millisecond issue time of access tokens (iat_ms claim);
+-- with whole seconds a login right after a password reset could fall under its own cutoff.
+ALTER TABLE token_revocations MODIFY revoked_at TIMESTAMP(3) NOT NULL;
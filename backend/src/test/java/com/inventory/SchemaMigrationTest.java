@@ -0,0 +1,69 @@
+package com.inventory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Upgrade from a database set up with the pre-Flyway database-schema.sql (only the
+ * users table and its seed rows): the context must start with ddl-auto=validate,
+ * the migrations must create every other table and the existing users survive.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + SchemaMigrationTest.URL)
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    static final String URL = "jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    // Runs before the context (and Flyway) touches the database
+    static {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/legacy-schema.sql"));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void legacyDatabaseIsBaselinedAndMigrated() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"type\" <> 'TABLE' "
+                        + "AND \"success\" = TRUE ORDER BY \"installed_rank\"", String.class);
+        assertEquals(List.of("0", "1", "1.1"), versions.subList(0, 3));
+
+        for (String table : List.of("email_outbox", "refresh_tokens", "token_revocations",
+                "jwt_signing_keys", "replica_heartbeat")) {
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = ?", Integer.class, table),
+                    table);
+        }
+        assertEquals(List.of("admin", "john_doe"),
+                jdbcTemplate.queryForList("SELECT username FROM users ORDER BY id", String.class));
+    }
+
+    @Test
+    void migratedTablesReferenceLegacyUsers() {
+        Long adminId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'admin'", Long.class);
+
+        jdbcTemplate.update("INSERT INTO refresh_tokens (user_id, token_hash, expires_at) "
+                + "VALUES (?, 'legacy', CURRENT_TIMESTAMP)", adminId);
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ?", Integer.class, adminId));
+    }
+}
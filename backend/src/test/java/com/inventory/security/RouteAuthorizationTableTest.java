@@ -0,0 +1,45 @@
+package com.inventory.security;
+
+import com.inventory.config.SecurityConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RouteAuthorizationTableTest {
+
+    private final RouteAuthorizationTable table = new SecurityConfig().routeAuthorizationTable();
+
+    @Test
+    void listedRoutesKeepTheirRoles() {
+        assertEquals("ADMIN", table.requiredRole("GET", "/api/auth/users"));
+        assertEquals("ADMIN", table.requiredRole("GET", "/api/auth/users/search"));
+        assertEquals(RouteAuthorizationTable.ANY_ROLE, table.requiredRole("GET", "/api/auth/users/42"));
+        assertEquals("ADMIN", table.requiredRole("PUT", "/api/auth/users/42/deactivate"));
+    }
+
+    @Test
+    void unlistedRoutesUnderUsersNeedAdmin() {
+        assertEquals("ADMIN", table.requiredRole("GET", "/api/auth/users/42/sessions"));
+        assertEquals("ADMIN", table.requiredRole("POST", "/api/auth/users/42"));
+        assertEquals("ADMIN", table.requiredRole("PATCH", "/api/auth/users"));
+        assertEquals("ADMIN", table.requiredRole("HEAD", "/api/auth/users/42/sessions"));
+    }
+
+    @Test
+    void headFollowsTheGetRoutes() {
+        assertEquals("ADMIN", table.requiredRole("HEAD", "/api/auth/audit"));
+        assertEquals("ADMIN", table.requiredRole("HEAD", "/api/auth/users"));
+        assertEquals(RouteAuthorizationTable.ANY_ROLE, table.requiredRole("HEAD", "/api/auth/users/42"));
+        assertNull(table.requiredRole("HEAD", "/api/auth/login"));
+    }
+
+    @Test
+    void routesOutsideTheProtectedTreeStayPublic() {
+        assertNull(table.requiredRole("POST", "/api/auth/login"));
+        assertNull(table.requiredRole("POST", "/api/auth/signup"));
+        assertNull(table.requiredRole("GET", "/api/auth/usersearch"));
+        // CORS preflights carry no token
+        assertNull(table.requiredRole("OPTIONS", "/api/auth/users/42"));
+    }
+}
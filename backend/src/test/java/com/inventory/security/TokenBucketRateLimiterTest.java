@@ -0,0 +1,110 @@
+package com.inventory.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    private static final int THREADS = 32;
+
+    @Test
+    void concurrentCallersNeverGetMoreThanCapacityPlusRefill() throws Exception {
+        int capacity = 50;
+        double perMinute = 600;
+        long start = System.currentTimeMillis();
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(capacity, perMinute, 1000);
+        long granted = hammer(THREADS, 500, i -> limiter.tryAcquire("10.0.0.1"));
+        long elapsedMs = System.currentTimeMillis() - start;
+
+        long allowed = capacity + (long) Math.ceil(elapsedMs * perMinute / 60_000d);
+        assertTrue(granted <= allowed, "granted " + granted + " > " + allowed + " after " + elapsedMs + " ms");
+        assertTrue(granted >= capacity, "granted " + granted + " < burst " + capacity);
+    }
+
+    @Test
+    void concurrentCallersGetExactlyTheBurstWhenNothingRefills() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, 0.001, 1000);
+        long granted = hammer(THREADS, 300, i -> limiter.tryAcquire("alice"));
+        assertEquals(100, granted);
+    }
+
+    @Test
+    void sweepDropsFullBucketsFirst() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 60_000, 100);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire("key-" + i));
+        }
+        Thread.sleep(20);
+        limiter.sweep();
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void fullMapIsTrimmedBelowItsBound() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 0.001, 100);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+        assertEquals(100, limiter.size());
+
+        // No bucket is full, so the sweep triggered by a new key has to evict a tenth of the map
+        assertEquals(0, limiter.tryAcquire("newcomer"));
+        assertTrue(limiter.size() <= 91, "size " + limiter.size());
+    }
+
+    @Test
+    void concurrentNewKeysKeepTheMapBounded() throws Exception {
+        int maxKeys = 1000;
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 0.001, maxKeys);
+        AtomicLong next = new AtomicLong();
+        hammer(THREADS, 300, i -> limiter.tryAcquire("ip-" + next.incrementAndGet()));
+        assertTrue(next.get() > maxKeys, "only " + next.get() + " keys tried");
+        // Threads that pass the size check together can each add one key after the sweep
+        assertTrue(limiter.size() <= maxKeys + THREADS, "size " + limiter.size());
+    }
+
+    private interface Attempt {
+        long run(long iteration);
+    }
+
+    // Runs the attempt on all threads at once for the given time; returns how many were allowed
+    private static long hammer(int threads, long durationMs, Attempt attempt) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+                    long granted = 0;
+                    for (long i = 0; System.nanoTime() < deadline; i++) {
+                        if (attempt.run(i) == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+            long granted = 0;
+            for (Future<Long> result : results) {
+                granted += result.get(30, TimeUnit.SECONDS);
+            }
+            return granted;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.inventory.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrustedProxiesTest {
+
+    private final TrustedProxies proxies = new TrustedProxies("127\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|10\\.0\\.\\d{1,3}\\.\\d{1,3}");
+
+    @Test
+    void untrustedPeerKeepsItsOwnAddress() {
+        assertEquals("203.0.113.7", proxies.clientAddress("203.0.113.7", "198.51.100.1"));
+    }
+
+    @Test
+    void trustedPeerForwardsTheFirstUntrustedHopFromTheRight() {
+        assertEquals("198.51.100.1", proxies.clientAddress("127.0.0.1", "198.51.100.1"));
+        assertEquals("198.51.100.1", proxies.clientAddress("127.0.0.1", "198.51.100.1, 10.0.0.5"));
+    }
+
+    @Test
+    void spoofedLeftmostEntriesAreIgnored() {
+        assertEquals("198.51.100.1", proxies.clientAddress("127.0.0.1", "1.2.3.4, 198.51.100.1, 10.0.0.5"));
+    }
+
+    @Test
+    void missingHeaderFallsBackToThePeer() {
+        assertEquals("127.0.0.1", proxies.clientAddress("127.0.0.1", null));
+        assertEquals("127.0.0.1", proxies.clientAddress("127.0.0.1", " , "));
+    }
+}
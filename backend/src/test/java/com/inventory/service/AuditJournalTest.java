@@ -0,0 +1,94 @@
+package com.inventory.service;
+
+import com.inventory.model.AuditEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuditJournalTest {
+
+    private static final int SEGMENT_SIZE = 64 << 10;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restartsResumeTheNewestSegment() throws IOException {
+        for (int restart = 0; restart < 10; restart++) {
+            AuditJournal journal = new AuditJournal(directory, SEGMENT_SIZE, 3);
+            journal.append(1000 + restart, AuditEvent.Type.LOGIN_SUCCESS, "user" + restart, null, "10.0.0.1", null);
+            journal.close();
+        }
+
+        AuditJournal journal = new AuditJournal(directory, SEGMENT_SIZE, 3);
+        assertEquals(1, journal.getSegmentCount());
+        assertEquals(10, journal.query(0, Long.MAX_VALUE, null, 100).size());
+        journal.close();
+    }
+
+    @Test
+    void recoveryStepsOverASlotThatWasReservedButNeverWritten() throws IOException {
+        AuditJournal journal = new AuditJournal(directory, SEGMENT_SIZE, 3);
+        journal.append(1000, AuditEvent.Type.LOGIN_SUCCESS, "alice", null, null, "first");
+        journal.append(2000, AuditEvent.Type.LOGIN_FAILURE, "bob", null, null, "second");
+        journal.close();
+
+        // Move the second record 64 bytes on, leaving zeros where a dead writer's reservation would be
+        Path segment = onlySegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            int second = buffer.getInt(0);
+            byte[] record = new byte[buffer.getInt(second)];
+            buffer.position(second);
+            buffer.get(record);
+            buffer.position(second);
+            buffer.put(new byte[64]).put(record);
+        }
+
+        journal = new AuditJournal(directory, SEGMENT_SIZE, 3);
+        journal.append(3000, AuditEvent.Type.LOGOUT, "carol", null, null, "third");
+        List<String> details = journal.query(0, Long.MAX_VALUE, null, 100).stream()
+                .map(AuditEvent::getDetail).collect(Collectors.toList());
+        assertEquals(List.of("third", "second", "first"), details);
+        assertEquals(1, journal.query(0, Long.MAX_VALUE, "BOB", 100).size());
+        journal.close();
+    }
+
+    @Test
+    void queriesReturnTheNewestMatchesAcrossSegments() throws IOException {
+        AuditJournal journal = new AuditJournal(directory, SEGMENT_SIZE, 3);
+        for (int i = 0; i < 3000; i++) {
+            journal.append(i, AuditEvent.Type.LOGIN_SUCCESS, i % 2 == 0 ? "even" : "odd", null, null, null);
+        }
+        // Spread over more than one segment, none deleted yet
+        assertEquals(2, journal.getSegmentCount());
+
+        assertEquals(List.of(2999L, 2998L, 2997L), timestamps(journal.query(0, Long.MAX_VALUE, null, 3)));
+        assertEquals(List.of(2998L, 2996L), timestamps(journal.query(0, Long.MAX_VALUE, "even", 2)));
+        assertEquals(List.of(1001L, 1000L), timestamps(journal.query(0, 1001, null, 2)));
+        journal.close();
+    }
+
+    private static List<Long> timestamps(List<AuditEvent> events) {
+        return events.stream().map(event -> event.getTimestamp().toEpochMilli()).collect(Collectors.toList());
+    }
+
+    private Path onlySegment() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "audit-*.log")) {
+            return files.iterator().next();
+        }
+    }
+}
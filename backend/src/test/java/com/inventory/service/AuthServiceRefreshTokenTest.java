@@ -0,0 +1,140 @@
+package com.inventory.service;
+
+import com.inventory.model.AuthResponse;
+import com.inventory.model.SignupRequest;
+import com.inventory.security.TokenRevocationService;
+import com.inventory.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Refresh-token rotation: a token presented again right after it was rotated
+ * is a concurrent refresh, later it is a replay that ends every session.
+ * Access-token revocations take effect only when their transaction commits, and
+ * per-user revocations synced from other instances evict the cached user.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:refresh;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+        + "DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class AuthServiceRefreshTokenTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Test
+    void concurrentRefreshWithinTheGraceWindowKeepsBothSessions() {
+        String original = signUp("two_tabs").getRefreshToken();
+
+        AuthResponse first = authService.refreshToken(original);
+        AuthResponse second = authService.refreshToken(original);
+
+        assertTrue(first.isSuccess(), first.getMessage());
+        assertTrue(second.isSuccess(), second.getMessage());
+        assertTrue(authService.refreshToken(first.getRefreshToken()).isSuccess());
+        assertTrue(authService.refreshToken(second.getRefreshToken()).isSuccess());
+    }
+
+    @Test
+    void replayAfterTheGraceWindowEndsEverySession() {
+        String original = signUp("replayed").getRefreshToken();
+        AuthResponse rotated = authService.refreshToken(original);
+        jdbcTemplate.update("UPDATE refresh_tokens SET rotated_at = ? WHERE rotated_at IS NOT NULL",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+
+        AuthResponse replay = authService.refreshToken(original);
+
+        assertFalse(replay.isSuccess());
+        assertEquals("Refresh token has been revoked. Please log in again.", replay.getMessage());
+        assertFalse(authService.refreshToken(rotated.getRefreshToken()).isSuccess());
+    }
+
+    @Test
+    void loggedOutTokenGetsNoGrace() {
+        AuthResponse session = signUp("logged_out");
+        authService.logout(session.getRefreshToken(), null);
+
+        assertFalse(authService.refreshToken(session.getRefreshToken()).isSuccess());
+    }
+
+    @Test
+    void revocationAppliesOnlyOnCommit() {
+        Claims claims = jwtUtil.extractAllClaims(signUp("rolled_back").getToken());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            tokenRevocationService.revokeToken(claims);
+            assertFalse(tokenRevocationService.isRevoked(claims));
+            status.setRollbackOnly();
+        });
+        assertFalse(tokenRevocationService.isRevoked(claims));
+
+        transactionTemplate.executeWithoutResult(status -> tokenRevocationService.revokeToken(claims));
+        assertTrue(tokenRevocationService.isRevoked(claims));
+    }
+
+    @Test
+    void aLoginRightAfterAUserRevocationIsNotCutOff() throws InterruptedException {
+        Claims before = jwtUtil.extractAllClaims(signUp("same_second").getToken());
+
+        tokenRevocationService.revokeUser("same_second");
+        // Past the cutoff millisecond, but almost always within the same iat second
+        Thread.sleep(2);
+        Claims after = jwtUtil.extractAllClaims(jwtUtil.generateToken("same_second", "EMPLOYEE"));
+
+        assertTrue(tokenRevocationService.isRevoked(before));
+        assertFalse(tokenRevocationService.isRevoked(after));
+    }
+
+    @Test
+    void deactivationOnAnotherInstanceEvictsTheCachedUser() {
+        signUp("elsewhere");
+        assertTrue(userCache.findByUsername("elsewhere").get().getIsActive());
+
+        // What deactivateUser on another instance leaves in the shared database
+        jdbcTemplate.update("UPDATE users SET is_active = FALSE WHERE username = 'elsewhere'");
+        jdbcTemplate.update("INSERT INTO token_revocations (username, revoked_at, expires_at) VALUES (?, ?, ?)",
+                "elsewhere", Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(LocalDateTime.now().plusMinutes(15)));
+        assertTrue(userCache.findByUsername("elsewhere").get().getIsActive());
+
+        tokenRevocationService.sync();
+
+        assertFalse(userCache.findByUsername("elsewhere").get().getIsActive());
+    }
+
+    private AuthResponse signUp(String username) {
+        SignupRequest request = new SignupRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@test.local");
+        request.setPassword("Secret#123");
+        request.setFullName("Refresh Test");
+        AuthResponse response = authService.registerUser(request);
+        assertTrue(response.isSuccess(), response.getMessage());
+        return response;
+    }
+}
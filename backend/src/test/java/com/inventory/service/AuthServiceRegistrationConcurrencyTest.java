@@ -0,0 +1,116 @@
+package com.inventory.service;
+
+import com.inventory.model.AuthResponse;
+import com.inventory.model.SignupRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parallel signups racing for the same username or email: the unique keys let
+ * exactly one through, and every loser gets the message for the key it hit.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:registration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+        + "DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class AuthServiceRegistrationConcurrencyTest {
+
+    private static final int SIGNUPS = 16;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sameUsernameLetsExactlyOneThrough() throws Exception {
+        List<AuthResponse> responses = signUpConcurrently(i -> request("race_user", "race_user_" + i + "@test.local"));
+
+        assertOneWinner(responses, "Username already exists!");
+        assertEquals(1, count("SELECT COUNT(*) FROM users WHERE username = 'race_user'"));
+    }
+
+    @Test
+    void sameEmailLetsExactlyOneThrough() throws Exception {
+        List<AuthResponse> responses = signUpConcurrently(i -> request("race_mail_" + i, "race_mail@test.local"));
+
+        assertOneWinner(responses, "Email already exists!");
+        assertEquals(1, count("SELECT COUNT(*) FROM users WHERE email = 'race_mail@test.local'"));
+    }
+
+    @Test
+    void sameUsernameAndEmailLetsExactlyOneThrough() throws Exception {
+        List<AuthResponse> responses = signUpConcurrently(i -> request("race_both", "race_both@test.local"));
+
+        long successes = responses.stream().filter(AuthResponse::isSuccess).count();
+        assertEquals(1, successes);
+        // Either key may be checked first; each loser must still be told about a real collision
+        for (AuthResponse response : responses) {
+            if (!response.isSuccess()) {
+                assertTrue(response.getMessage().equals("Username already exists!")
+                        || response.getMessage().equals("Email already exists!"), response.getMessage());
+            }
+        }
+        assertEquals(1, count("SELECT COUNT(*) FROM users WHERE username = 'race_both'"));
+    }
+
+    private List<AuthResponse> signUpConcurrently(IntFunction<SignupRequest> requests) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(SIGNUPS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<AuthResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < SIGNUPS; i++) {
+                SignupRequest request = requests.apply(i);
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return authService.registerUser(request);
+                }));
+            }
+            start.countDown();
+            List<AuthResponse> responses = new ArrayList<>();
+            for (Future<AuthResponse> future : futures) {
+                responses.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void assertOneWinner(List<AuthResponse> responses, String loserMessage) {
+        assertEquals(1, responses.stream().filter(AuthResponse::isSuccess).count(), responses::toString);
+        for (AuthResponse response : responses) {
+            if (!response.isSuccess()) {
+                assertEquals(loserMessage, response.getMessage());
+            }
+        }
+    }
+
+    private static SignupRequest request(String username, String email) {
+        SignupRequest request = new SignupRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword("Secret#123");
+        request.setFullName("Race Test");
+        return request;
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.model.AuditEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk provisioning: rows are checked before insert, a row the database rejects
+ * is reported with the database's reason, and created users are audited.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:bulk;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+        + "DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class BulkUserProvisioningServiceTest {
+
+    @Autowired
+    private BulkUserProvisioningService bulkUserProvisioningService;
+
+    @Autowired
+    private AuthAuditLog authAuditLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void unknownRolesAreRejectedAndKnownOnesNormalized() throws IOException {
+        List<JsonNode> results = provision("username,email,password,full_name,role\n"
+                + "bulk_root,bulk_root@test.local,Secret#123,Bulk Root,SUPERUSER\n"
+                + "bulk_mgr,bulk_mgr@test.local,Secret#123,Bulk Manager,manager\n");
+
+        assertFalse(results.get(0).path("success").asBoolean());
+        assertTrue(results.get(0).path("message").asText().startsWith("Unknown role SUPERUSER"));
+        assertTrue(results.get(1).path("success").asBoolean());
+        assertEquals("MANAGER", jdbcTemplate.queryForObject("SELECT role FROM users WHERE username = 'bulk_mgr'", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username = 'bulk_root'", Integer.class));
+    }
+
+    @Test
+    void aRowTheDatabaseRejectsReportsWhy() throws IOException {
+        String tooLong = "X".repeat(150);
+        List<JsonNode> results = provision("username,email,password,full_name\n"
+                + "bulk_ok,bulk_ok@test.local,Secret#123,Bulk Ok\n"
+                + "bulk_long,bulk_long@test.local,Secret#123," + tooLong + "\n");
+
+        assertTrue(results.get(0).path("success").asBoolean());
+        assertFalse(results.get(1).path("success").asBoolean());
+        String message = results.get(1).path("message").asText();
+        assertTrue(message.startsWith("Insert failed: "), message);
+        assertFalse(message.contains("already exists"), message);
+    }
+
+    @Test
+    void createdUsersAreAudited() throws IOException {
+        Instant from = Instant.now().minusSeconds(1);
+        provision("username,email,password,full_name\nbulk_audited,bulk_audited@test.local,Secret#123,Bulk Audited\n");
+
+        List<AuditEvent> events = authAuditLog.query(from, Instant.now().plusSeconds(1), "bulk_audited", 10);
+        assertEquals(1, events.size());
+        assertEquals(AuditEvent.Type.SIGNUP, events.get(0).getType());
+        assertEquals("bulk provisioning", events.get(0).getDetail());
+    }
+
+    // Per-row results, summary line dropped
+    private List<JsonNode> provision(String csv) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bulkUserProvisioningService.provision(new BufferedReader(new StringReader(csv)), true, out);
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            if (!node.has("summary")) {
+                results.add(node);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,145 @@
+package com.inventory.service;
+
+import com.inventory.model.EmailOutbox;
+import com.inventory.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.mail.internet.MimeMessage;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * The dispatcher claims rows, sends with no transaction open and writes each
+ * outcome afterwards; delivered rows are purged after the retention period.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+        + "DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class EmailOutboxServiceTest {
+
+    @Autowired
+    private EmailOutboxService outboxService;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private EmailService emailService;
+
+    @BeforeEach
+    void clearOutbox() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void sendsOutsideTheClaimTransaction() {
+        EmailOutbox entry = queue("alice@test.local");
+        AtomicBoolean inTransaction = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            // Claimed rows are leased while the send runs
+            assertEquals(EmailOutbox.STATUS_SENDING, outboxRepository.findById(entry.getId()).get().getStatus());
+            return null;
+        }).when(emailService).sendAll(any());
+
+        outboxService.dispatchPending();
+
+        assertFalse(inTransaction.get());
+        EmailOutbox sent = outboxRepository.findById(entry.getId()).get();
+        assertEquals(EmailOutbox.STATUS_SENT, sent.getStatus());
+        assertEquals(1, sent.getAttempts());
+    }
+
+    @Test
+    void failedMessageGoesBackToPending() {
+        EmailOutbox delivered = queue("bob@test.local");
+        EmailOutbox rejected = queue("carol@test.local");
+        doAnswer(invocation -> {
+            for (Object argument : invocation.getArguments()) {
+                MimeMessage message = (MimeMessage) argument;
+                if (message.getAllRecipients()[0].toString().equals("carol@test.local")) {
+                    throw new MailSendException(Collections.singletonMap(message, new Exception("mailbox full")));
+                }
+            }
+            return null;
+        }).when(emailService).sendAll(any());
+
+        outboxService.dispatchPending();
+
+        assertEquals(EmailOutbox.STATUS_SENT, outboxRepository.findById(delivered.getId()).get().getStatus());
+        EmailOutbox retried = outboxRepository.findById(rejected.getId()).get();
+        assertEquals(EmailOutbox.STATUS_PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertEquals("mailbox full", retried.getLastError());
+    }
+
+    @Test
+    void expiredLeaseIsReclaimed() {
+        EmailOutbox entry = queue("dave@test.local");
+        jdbcTemplate.update("UPDATE email_outbox SET status = 'SENDING', attempts = 1, next_attempt_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), entry.getId());
+        doAnswer(invocation -> null).when(emailService).sendAll(any());
+
+        outboxService.dispatchPending();
+
+        EmailOutbox sent = outboxRepository.findById(entry.getId()).get();
+        assertEquals(EmailOutbox.STATUS_SENT, sent.getStatus());
+        assertEquals(2, sent.getAttempts());
+    }
+
+    @Test
+    void connectionFailureRetriesTheWholeBatch() {
+        EmailOutbox entry = queue("erin@test.local");
+        doThrow(new MailSendException("connection refused")).when(emailService).sendAll(any());
+
+        outboxService.dispatchPending();
+
+        EmailOutbox retried = outboxRepository.findById(entry.getId()).get();
+        assertEquals(EmailOutbox.STATUS_PENDING, retried.getStatus());
+        assertNull(retried.getSentAt());
+    }
+
+    @Test
+    void purgeDeletesOnlyExpiredSentRows() {
+        EmailOutbox old = queue("old@test.local");
+        EmailOutbox recent = queue("recent@test.local");
+        EmailOutbox pending = queue("pending@test.local");
+        markSent(old, LocalDateTime.now().minusDays(30));
+        markSent(recent, LocalDateTime.now().minusHours(1));
+
+        assertEquals(1, outboxService.purgeSent());
+
+        assertFalse(outboxRepository.existsById(old.getId()));
+        assertEquals(EmailOutbox.STATUS_SENT, outboxRepository.findById(recent.getId()).get().getStatus());
+        assertEquals(EmailOutbox.STATUS_PENDING, outboxRepository.findById(pending.getId()).get().getStatus());
+    }
+
+    private EmailOutbox queue(String recipient) {
+        return outboxRepository.save(new EmailOutbox(EmailOutbox.TYPE_WELCOME, recipient, "Test User", "user"));
+    }
+
+    private void markSent(EmailOutbox entry, LocalDateTime sentAt) {
+        jdbcTemplate.update("UPDATE email_outbox SET status = 'SENT', sent_at = ? WHERE id = ?",
+                Timestamp.valueOf(sentAt), entry.getId());
+    }
+}
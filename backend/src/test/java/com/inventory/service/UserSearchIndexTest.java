@@ -0,0 +1,183 @@
+package com.inventory.service;
+
+import com.inventory.model.UserDTO;
+import com.inventory.model.UserSearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserSearchIndexTest {
+
+    // Enough users that one putAll pushes the delta past its merge threshold
+    private static final int MERGE_BATCH = 2500;
+
+    @Test
+    void prefixRangesSpanBaseAndDelta() {
+        UserSearchIndex index = build(user(1, "alice", "alice@corp.local", "Alice Smith", "ADMIN", true),
+                user(2, "albert", "albert@corp.local", "Albert Jones", "EMPLOYEE", true),
+                user(3, "bob", "bob@corp.local", "Bob Brown", "EMPLOYEE", true));
+        index.put(user(4, "alfred", "alfred@corp.local", "Alfred Hall", "MANAGER", true));
+        index.put(user(5, "alan", "alan@corp.local", "Alan Turing", "EMPLOYEE", true));
+
+        // Key order across both arrays: alan, albert, alfred, alice
+        assertEquals(List.of(5L, 2L, 4L, 1L), ids(index.search("al", null, null, 10)));
+        assertEquals(4, index.search("al", null, null, 10).getTotal());
+        assertEquals(List.of(5L, 2L), ids(index.search("al", null, null, 2)));
+        assertEquals(List.of(3L), ids(index.search("bo", null, null, 10)));
+        assertEquals(List.of(3L), ids(index.search("brown", null, null, 10)));
+        assertEquals(0, index.search("zed", null, null, 10).getTotal());
+    }
+
+    @Test
+    void aUserMatchingOnSeveralKeysIsListedAndCountedOnce() {
+        UserSearchIndex index = build(user(1, "sam", "sam@corp.local", "Sam Samson", "EMPLOYEE", true));
+        index.put(user(2, "sammy", "sammy@corp.local", "Sammy Sampson", "EMPLOYEE", false));
+
+        UserSearchResult result = index.search("sam", null, null, 10);
+
+        assertEquals(List.of(1L, 2L), ids(result));
+        assertEquals(2, result.getTotal());
+        assertEquals(Map.of("EMPLOYEE", 2L), result.getRoles());
+        assertEquals(1L, result.getStatus().get("active"));
+        assertEquals(1L, result.getStatus().get("inactive"));
+    }
+
+    @Test
+    void filtersApplyToUsersAndTotalsButFacetsCountTheOtherDimension() {
+        UserSearchIndex index = build(user(1, "kate", "kate@corp.local", "Kate Admin", "ADMIN", true),
+                user(2, "kurt", "kurt@corp.local", "Kurt Manager", "MANAGER", true),
+                user(3, "kim", "kim@corp.local", "Kim Employee", "EMPLOYEE", false),
+                user(4, "ken", "ken@corp.local", "Ken Employee", "EMPLOYEE", true));
+
+        UserSearchResult employees = index.search("k", "EMPLOYEE", null, 10);
+        assertEquals(List.of(4L, 3L), ids(employees));
+        assertEquals(2, employees.getTotal());
+        assertEquals(1L, employees.getStatus().get("active"));
+        assertEquals(1L, employees.getStatus().get("inactive"));
+        assertEquals(4L, employees.getRoles().values().stream().mapToLong(Long::longValue).sum());
+
+        UserSearchResult active = index.search("k", null, true, 10);
+        assertEquals(List.of(1L, 4L, 2L), ids(active));
+        assertEquals(3, active.getTotal());
+        assertEquals(Map.of("ADMIN", 1L, "MANAGER", 1L, "EMPLOYEE", 1L), active.getRoles());
+
+        assertEquals(List.of(3L), ids(index.search("k", "EMPLOYEE", false, 10)));
+        assertEquals(0, index.search("k", "AUDITOR", null, 10).getTotal());
+
+        // An empty query matches everyone, from the running counts
+        UserSearchResult everyone = index.search("", null, null, 10);
+        assertEquals(4, everyone.getTotal());
+        assertEquals(4, everyone.getUsers().size());
+    }
+
+    @Test
+    void updatesApplyBeforeAndAfterAMerge() {
+        UserSearchIndex index = build(user(1, "dora", "dora@corp.local", "Dora Explorer", "EMPLOYEE", true));
+        index.put(user(2, "dan", "dan@corp.local", "Dan Delta", "EMPLOYEE", true));
+        assertUpdatesApply(index);
+
+        UserSearchIndex merged = build(user(1, "dora", "dora@corp.local", "Dora Explorer", "EMPLOYEE", true));
+        merged.put(user(2, "dan", "dan@corp.local", "Dan Delta", "EMPLOYEE", true));
+        int keysBefore = merged.keyCount();
+        merged.putAll(filler());
+        assertTrue(merged.keyCount() > keysBefore + MERGE_BATCH);
+        assertUpdatesApply(merged);
+    }
+
+    private void assertUpdatesApply(UserSearchIndex index) {
+        // Same keys: replaced in place
+        index.put(user(2, "dan", "dan@corp.local", "Dan Delta", "MANAGER", true));
+        UserSearchResult dan = index.search("dan", null, null, 10);
+        assertEquals("MANAGER", dan.getUsers().get(0).getRole());
+        assertEquals(Map.of("MANAGER", 1L), dan.getRoles());
+
+        index.setActive(1, false);
+        assertEquals(List.of(), ids(index.search("dora", null, true, 10)));
+        assertEquals(List.of(1L), ids(index.search("dora", null, false, 10)));
+        assertEquals(Boolean.FALSE, index.search("dora", null, null, 10).getUsers().get(0).getIsActive());
+        index.setActive(1, true);
+        assertEquals(List.of(1L), ids(index.search("dora", null, true, 10)));
+
+        int size = index.size();
+        index.remove(2);
+        assertEquals(0, index.search("dan", null, null, 10).getTotal());
+        assertEquals(size - 1, index.size());
+        // Removing again, or changing a removed user's status, is a no-op
+        index.remove(2);
+        index.setActive(2, true);
+        assertEquals(0, index.search("dan", null, null, 10).getTotal());
+        assertEquals(size - 1, index.size());
+    }
+
+    @Test
+    void anEmailChangeLeavesTheOldKeysDead() {
+        UserSearchIndex index = build(user(1, "erin", "erin@old.local", "Erin Moss", "EMPLOYEE", true));
+        int keys = index.keyCount();
+
+        index.put(user(1, "erin", "erin@new.local", "Erin Moss", "EMPLOYEE", true));
+
+        assertEquals(0, index.search("erin@old", null, null, 10).getTotal());
+        assertEquals(List.of(1L), ids(index.search("erin@new", null, null, 10)));
+        UserSearchResult byName = index.search("erin", null, null, 10);
+        assertEquals(List.of(1L), ids(byName));
+        assertEquals(1, byName.getTotal());
+        assertEquals("erin@new.local", byName.getUsers().get(0).getEmail());
+        assertEquals(1, index.size());
+        // The old slot's keys stay, marked dead, until the next merge drops them
+        assertEquals(keys * 2, index.keyCount());
+
+        index.putAll(filler());
+        assertEquals(keys + 4 * MERGE_BATCH, index.keyCount());
+        assertEquals(List.of(1L), ids(index.search("erin@new", null, null, 10)));
+    }
+
+    @Test
+    void queriesAreNormalizedLikeTheKeys() {
+        UserSearchIndex index = build(user(1, "mary", "mary@corp.local", "Mary  Ann\tLee", "EMPLOYEE", true),
+                user(2, "maryann", "maryann@corp.local", "Maryann Lee", "EMPLOYEE", true));
+
+        assertEquals(List.of(1L, 2L), ids(index.search("  MARY", null, null, 10)));
+        // A trailing space ends the word: "mary " is a full name key, not "maryann"
+        assertEquals(List.of(1L), ids(index.search("Mary ", null, null, 10)));
+        assertEquals(List.of(1L), ids(index.search("mary   ann\n", null, null, 10)));
+        assertEquals(List.of(1L), ids(index.search("ann", null, null, 10)));
+        assertEquals(List.of(1L, 2L), ids(index.search("LEE", null, null, 10)));
+        assertEquals(2, index.search(null, null, null, 10).getTotal());
+
+        String tooLong = "m".repeat(UserSearchIndex.MAX_QUERY_LENGTH);
+        assertEquals(UserSearchIndex.MAX_QUERY_LENGTH,
+                UserSearchIndex.normalize(tooLong + "xyz", UserSearchIndex.MAX_QUERY_LENGTH, true).length());
+        assertEquals(tooLong, UserSearchIndex.normalize(tooLong + " ", UserSearchIndex.MAX_QUERY_LENGTH, true));
+        assertEquals(0, index.search(tooLong + "xyz", null, null, 10).getTotal());
+    }
+
+    private static UserSearchIndex build(UserDTO... users) {
+        UserSearchIndex.Builder builder = new UserSearchIndex.Builder();
+        Arrays.stream(users).forEach(builder::add);
+        return builder.build();
+    }
+
+    // Four keys each (username, email, full name, surname), none sharing a prefix with the named users
+    private static List<UserDTO> filler() {
+        List<UserDTO> users = new ArrayList<>(MERGE_BATCH);
+        for (int i = 0; i < MERGE_BATCH; i++) {
+            users.add(user(1000 + i, "zz" + i, "zz" + i + "@fill.local", "Yy" + i + " Xx" + i, "EMPLOYEE", true));
+        }
+        return users;
+    }
+
+    private static UserDTO user(long id, String username, String email, String fullName, String role, boolean active) {
+        return new UserDTO(id, username, email, fullName, role, active, null, null);
+    }
+
+    private static List<Long> ids(UserSearchResult result) {
+        return result.getUsers().stream().map(UserDTO::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,56 @@
+package com.inventory.util;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The verified-claims cache hands out copies, stays within its bound on the
+ * request path and is trimmed by the scheduled sweep.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jwt;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.jwt.cache.max-entries=20",
+        "app.jwt.cache.sweep-interval-ms=600000"})
+@ActiveProfiles("test")
+class JwtUtilTest {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void cachedClaimsCannotBeChangedByACaller() {
+        String token = jwtUtil.generateToken("alice", "EMPLOYEE");
+
+        jwtUtil.extractAllClaims(token).put("role", "ADMIN");
+        Claims hit = jwtUtil.extractAllClaims(token);
+        hit.put("role", "ADMIN");
+
+        assertEquals("EMPLOYEE", jwtUtil.extractRole(token));
+        assertEquals("alice", jwtUtil.extractUsername(token));
+    }
+
+    @Test
+    void cacheStaysBoundedAndSweepTrimsIt() {
+        for (int i = 0; i < 50; i++) {
+            jwtUtil.extractAllClaims(jwtUtil.generateToken("user" + i, "EMPLOYEE"));
+        }
+        assertTrue(cacheSize() <= 20, "size " + cacheSize());
+
+        jwtUtil.sweepCache();
+        assertTrue(cacheSize() <= 18, "size " + cacheSize());
+    }
+
+    private double cacheSize() {
+        return meterRegistry.get("jwt.cache.size").gauge().value();
+    }
+}
@@ -1,5 +1,10 @@
 -- Smart Inventory Management System - Database Schema
 -- Module 1: Authentication & Authorization
+--
+-- The backend now creates and upgrades the schema itself with Flyway
+-- (backend/src/main/resources/db/migration); new tables and indexes go there, not here.
+-- This script only creates the users table (the same as V1__baseline_schema.sql); a database
+-- set up from it is baselined at version 0 on first start and the migrations add the rest.
 
 CREATE DATABASE IF NOT EXISTS smart_inventory;
 USE smart_inventory;
@@ -7,8 +12,8 @@ USE smart_inventory;
 -- User Table
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    username VARCHAR(50) UNIQUE NOT NULL,
-    email VARCHAR(100) UNIQUE NOT NULL,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
     password VARCHAR(255) NOT NULL,
     full_name VARCHAR(100) NOT NULL,
     role VARCHAR(20) NOT NULL DEFAULT 'EMPLOYEE',
@@ -18,6 +23,8 @@ CREATE TABLE IF NOT EXISTS users (
     last_login TIMESTAMP NULL,
     reset_token VARCHAR(255) NULL,
     reset_token_expiry TIMESTAMP NULL,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email),
     INDEX idx_username (username),
     INDEX idx_email (email),
     INDEX idx_role (role)
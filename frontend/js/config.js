@@ -7,7 +7,10 @@ const API_ENDPOINTS = {
     SIGNUP: `${API_BASE_URL}/signup`,
     FORGOT_PASSWORD: `${API_BASE_URL}/forgot-password`,
     RESET_PASSWORD: `${API_BASE_URL}/reset-password`,
+    REFRESH: `${API_BASE_URL}/refresh`,
+    LOGOUT: `${API_BASE_URL}/logout`,
     USERS: `${API_BASE_URL}/users`,
+    USERS_SEARCH: `${API_BASE_URL}/users/search`,
     DELETE_USER: (id) => `${API_BASE_URL}/users/${id}`,
     DEACTIVATE_USER: (id) => `${API_BASE_URL}/users/${id}/deactivate`
 };
@@ -15,9 +18,13 @@ const API_ENDPOINTS = {
 // Local Storage Keys
 const STORAGE_KEYS = {
     TOKEN: 'authToken',
+    REFRESH_TOKEN: 'refreshToken',
     USER: 'currentUser'
 };
 
+// In-flight refresh request, shared so concurrent 401s rotate the refresh token only once
+let refreshPromise = null;
+
 // Utility Functions
 const Utils = {
     // Show message
@@ -61,9 +68,18 @@ const Utils = {
         return Utils.getFromStorage(STORAGE_KEYS.USER);
     },
     
-    // Logout
+    // Logout (revokes the session server-side, best effort)
     logout: () => {
+        const token = Utils.getFromStorage(STORAGE_KEYS.TOKEN);
+        fetch(API_ENDPOINTS.LOGOUT, {
+            method: 'POST',
+            headers: token ? { 'Content-Type': 'application/json', 'Authorization': `Bearer ${token}` }
+                           : { 'Content-Type': 'application/json' },
+            body: JSON.stringify({ refreshToken: Utils.getFromStorage(STORAGE_KEYS.REFRESH_TOKEN) }),
+            keepalive: true
+        }).catch(() => {});
         Utils.removeFromStorage(STORAGE_KEYS.TOKEN);
+        Utils.removeFromStorage(STORAGE_KEYS.REFRESH_TOKEN);
         Utils.removeFromStorage(STORAGE_KEYS.USER);
         window.location.href = 'login.html';
     },
@@ -75,8 +91,35 @@ const Utils = {
         return date.toLocaleDateString() + ' ' + date.toLocaleTimeString();
     },
     
-    // Make API call
-    apiCall: async (url, method = 'GET', data = null) => {
+    // Save the tokens from a login, signup or refresh response
+    saveTokens: (response) => {
+        Utils.saveToStorage(STORAGE_KEYS.TOKEN, response.token);
+        Utils.saveToStorage(STORAGE_KEYS.REFRESH_TOKEN, response.refreshToken);
+    },
+    
+    // Exchange the refresh token for a new token pair; resolves to false if the session is over
+    refreshSession: () => {
+        if (!refreshPromise) {
+            const refreshToken = Utils.getFromStorage(STORAGE_KEYS.REFRESH_TOKEN);
+            refreshPromise = (refreshToken
+                ? fetch(API_ENDPOINTS.REFRESH, {
+                    method: 'POST',
+                    headers: { 'Content-Type': 'application/json' },
+                    body: JSON.stringify({ refreshToken: refreshToken })
+                }).then(response => response.json()).then(data => {
+                    if (data.success) {
+                        Utils.saveTokens(data);
+                    }
+                    return data.success;
+                }).catch(() => false)
+                : Promise.resolve(false)
+            ).finally(() => { refreshPromise = null; });
+        }
+        return refreshPromise;
+    },
+    
+    // Make API call (renews an expired access token once and retries)
+    apiCall: async (url, method = 'GET', data = null, retried = false) => {
         try {
             const options = {
                 method: method,
@@ -97,6 +140,11 @@ const Utils = {
             }
             
             const response = await fetch(url, options);
+            if (response.status === 401 && token && !retried) {
+                if (await Utils.refreshSession()) {
+                    return Utils.apiCall(url, method, data, true);
+                }
+            }
             const responseData = await response.json();
             
             return responseData;
@@ -2,14 +2,24 @@
 const API_BASE_URL = 'http://localhost:8080/api/auth';
 const API_ENDPOINTS = {
     USERS: `${API_BASE_URL}/users`,
-    DELETE_USER: (id) => `${API_BASE_URL}/users/${id}`
+    USERS_SEARCH: `${API_BASE_URL}/users/search`,
+    DELETE_USER: (id) => `${API_BASE_URL}/users/${id}`,
+    REFRESH: `${API_BASE_URL}/refresh`,
+    LOGOUT: `${API_BASE_URL}/logout`
 };
 const STORAGE_KEYS = {
     TOKEN: 'authToken',
+    REFRESH_TOKEN: 'refreshToken',
     USER: 'currentUser'
 };
 
+// In-flight refresh request, shared so concurrent 401s rotate the refresh token only once
+let refreshPromise = null;
+
 const Utils = {
+    saveToStorage: (key, value) => {
+        localStorage.setItem(key, JSON.stringify(value));
+    },
     getFromStorage: (key) => {
         const item = localStorage.getItem(key);
         return item ? JSON.parse(item) : null;
@@ -24,7 +34,16 @@ const Utils = {
         return Utils.getFromStorage(STORAGE_KEYS.USER);
     },
     logout: () => {
+        const token = Utils.getFromStorage(STORAGE_KEYS.TOKEN);
+        fetch(API_ENDPOINTS.LOGOUT, {
+            method: 'POST',
+            headers: token ? { 'Content-Type': 'application/json', 'Authorization': `Bearer ${token}` }
+                           : { 'Content-Type': 'application/json' },
+            body: JSON.stringify({ refreshToken: Utils.getFromStorage(STORAGE_KEYS.REFRESH_TOKEN) }),
+            keepalive: true
+        }).catch(() => {});
         Utils.removeFromStorage(STORAGE_KEYS.TOKEN);
+        Utils.removeFromStorage(STORAGE_KEYS.REFRESH_TOKEN);
         Utils.removeFromStorage(STORAGE_KEYS.USER);
         window.location.href = 'login.html';
     },
@@ -33,7 +52,27 @@ const Utils = {
         const date = new Date(dateString);
         return date.toLocaleDateString() + ' ' + date.toLocaleTimeString();
     },
-    apiCall: async (url, method = 'GET', data = null) => {
+    refreshSession: () => {
+        if (!refreshPromise) {
+            const refreshToken = Utils.getFromStorage(STORAGE_KEYS.REFRESH_TOKEN);
+            refreshPromise = (refreshToken
+                ? fetch(API_ENDPOINTS.REFRESH, {
+                    method: 'POST',
+                    headers: { 'Content-Type': 'application/json' },
+                    body: JSON.stringify({ refreshToken: refreshToken })
+                }).then(response => response.json()).then(data => {
+                    if (data.success) {
+                        Utils.saveToStorage(STORAGE_KEYS.TOKEN, data.token);
+                        Utils.saveToStorage(STORAGE_KEYS.REFRESH_TOKEN, data.refreshToken);
+                    }
+                    return data.success;
+                }).catch(() => false)
+                : Promise.resolve(false)
+            ).finally(() => { refreshPromise = null; });
+        }
+        return refreshPromise;
+    },
+    apiCall: async (url, method = 'GET', data = null, retried = false) => {
         try {
             const options = {
                 method: method,
@@ -49,6 +88,11 @@ const Utils = {
                 options.body = JSON.stringify(data);
             }
             const response = await fetch(url, options);
+            if (response.status === 401 && token && !retried) {
+                if (await Utils.refreshSession()) {
+                    return Utils.apiCall(url, method, data, true);
+                }
+            }
             const responseData = await response.json();
             return responseData;
         } catch (error) {
@@ -65,6 +109,15 @@ if (!Utils.isAuthenticated()) {
 
 const currentUser = Utils.getCurrentUser();
 
+// Admin user list paging
+const USERS_PAGE_SIZE = 50;
+let nextUsersAfterId = null;
+
+// Admin user search: wait for a pause in typing, and drop answers to superseded queries
+const USERS_SEARCH_DEBOUNCE_MS = 150;
+let userSearchTimer = null;
+let userSearchSeq = 0;
+
 // Display welcome message
 document.getElementById('welcomeUser').textContent = `Welcome, ${currentUser.fullName}!`;
 
@@ -93,23 +146,76 @@ if (currentUser.role === 'ADMIN') {
     loadUsers();
 }
 
-// Load all users (Admin only)
-async function loadUsers() {
+// Load users a page at a time (Admin only)
+async function loadUsers(append = false) {
     try {
-        const users = await Utils.apiCall(API_ENDPOINTS.USERS);
+        const afterId = append && nextUsersAfterId ? nextUsersAfterId : 0;
+        const page = await Utils.apiCall(`${API_ENDPOINTS.USERS}?limit=${USERS_PAGE_SIZE}&afterId=${afterId}`);
         
-        if (Array.isArray(users)) {
-            displayUsers(users);
+        if (page && Array.isArray(page.users)) {
+            displayUsers(page.users, append);
+            nextUsersAfterId = page.nextAfterId;
+            document.getElementById('loadMoreUsersBtn').style.display = nextUsersAfterId ? 'inline-block' : 'none';
         }
     } catch (error) {
         console.error('Error loading users:', error);
     }
 }
 
+document.getElementById('loadMoreUsersBtn').addEventListener('click', () => loadUsers(true));
+
+// Search when there is a query or a filter, otherwise back to the paged listing
+function refreshUsers() {
+    const query = document.getElementById('userSearchInput').value;
+    const role = document.getElementById('userSearchRole').value;
+    const active = document.getElementById('userSearchStatus').value;
+    if (!query.trim() && !role && !active) {
+        userSearchSeq++;
+        document.getElementById('userSearchFacets').textContent = '';
+        loadUsers();
+        return;
+    }
+    searchUsers(query, role, active);
+}
+
+async function searchUsers(query, role, active) {
+    const seq = ++userSearchSeq;
+    const params = new URLSearchParams({ q: query, limit: USERS_PAGE_SIZE });
+    if (role) params.set('role', role);
+    if (active) params.set('active', active);
+    try {
+        const result = await Utils.apiCall(`${API_ENDPOINTS.USERS_SEARCH}?${params}`);
+        if (seq !== userSearchSeq) {
+            return;
+        }
+        if (result && Array.isArray(result.users)) {
+            displayUsers(result.users);
+            document.getElementById('loadMoreUsersBtn').style.display = 'none';
+            const roles = Object.entries(result.roles).map(([name, count]) => `${name} ${count}`).join(' · ');
+            document.getElementById('userSearchFacets').textContent =
+                `${result.users.length} of ${result.total} matching` + (roles ? ` | ${roles}` : '') +
+                ` | active ${result.status.active} · inactive ${result.status.inactive}`;
+        } else {
+            document.getElementById('userSearchFacets').textContent = (result && result.message) || 'Search unavailable';
+        }
+    } catch (error) {
+        console.error('Error searching users:', error);
+    }
+}
+
+document.getElementById('userSearchInput').addEventListener('input', () => {
+    clearTimeout(userSearchTimer);
+    userSearchTimer = setTimeout(refreshUsers, USERS_SEARCH_DEBOUNCE_MS);
+});
+document.getElementById('userSearchRole').addEventListener('change', refreshUsers);
+document.getElementById('userSearchStatus').addEventListener('change', refreshUsers);
+
 // Display users in table
-function displayUsers(users) {
+function displayUsers(users, append = false) {
     const tbody = document.getElementById('usersTableBody');
-    tbody.innerHTML = '';
+    if (!append) {
+        tbody.innerHTML = '';
+    }
     
     users.forEach(user => {
         const row = document.createElement('tr');
@@ -137,7 +243,7 @@ async function deleteUser(userId, username) {
             
             if (response.success) {
                 alert('User deleted successfully!');
-                loadUsers(); // Reload users list
+                refreshUsers(); // Reload users list
             } else {
                 alert(response.message || 'Failed to delete user');
             }
@@ -5,6 +5,7 @@ const API_ENDPOINTS = {
 };
 const STORAGE_KEYS = {
     TOKEN: 'authToken',
+    REFRESH_TOKEN: 'refreshToken',
     USER: 'currentUser'
 };
 
@@ -87,6 +88,7 @@ document.getElementById('loginForm').addEventListener('submit', async (e) => {
         if (response.success) {
             // Save token and user data
             Utils.saveToStorage(STORAGE_KEYS.TOKEN, response.token);
+            Utils.saveToStorage(STORAGE_KEYS.REFRESH_TOKEN, response.refreshToken);
             Utils.saveToStorage(STORAGE_KEYS.USER, response.user);
             
             Utils.showMessage('message', 'Login successful! Redirecting...', 'success');
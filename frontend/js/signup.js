@@ -5,6 +5,7 @@ const API_ENDPOINTS = {
 };
 const STORAGE_KEYS = {
     TOKEN: 'authToken',
+    REFRESH_TOKEN: 'refreshToken',
     USER: 'currentUser'
 };
 
@@ -69,7 +70,6 @@ document.getElementById('signupForm').addEventListener('submit', async (e) => {
     const email = document.getElementById('email').value.trim();
     const password = document.getElementById('password').value;
     const confirmPassword = document.getElementById('confirmPassword').value;
-    const role = document.getElementById('role').value;
     
     // Validation
     if (!fullName || !username || !email || !password || !confirmPassword) {
@@ -105,13 +105,13 @@ document.getElementById('signupForm').addEventListener('submit', async (e) => {
             fullName: fullName,
             username: username,
             email: email,
-            password: password,
-            role: role
+            password: password
         });
         
         if (response.success) {
             // Save token and user data
             Utils.saveToStorage(STORAGE_KEYS.TOKEN, response.token);
+            Utils.saveToStorage(STORAGE_KEYS.REFRESH_TOKEN, response.refreshToken);
             Utils.saveToStorage(STORAGE_KEYS.USER, response.user);
             
             Utils.showMessage('message', 'Account created successfully! Redirecting...', 'success');